@@ -0,0 +1,15 @@
+-- Migration script: Add optimistic locking version columns to catalog tables
+-- Run this against your PostgreSQL database
+
+-- Step 1: Add version columns; existing rows start at version 0
+ALTER TABLE brands_schema.brands ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE brands_schema.categories ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE brands_schema.products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Verify the changes
+SELECT table_name, column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_schema = 'brands_schema'
+AND table_name IN ('brands', 'categories', 'products')
+AND column_name = 'version'
+ORDER BY table_name;
@@ -0,0 +1,38 @@
+-- Migration script: Switch id generation from IDENTITY/SERIAL to pooled sequences
+-- Hibernate reserves 50 ids per nextval call, so inserts no longer need a round trip
+-- each to learn their id and can be sent as JDBC batches.
+-- Stop the application before running this against your PostgreSQL database
+
+-- Step 1: Create one sequence per table, stepping by the allocation size used by the entities
+CREATE SEQUENCE IF NOT EXISTS brands_schema.brands_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS brands_schema.categories_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS brands_schema.products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS brands_schema.users_seq START WITH 1 INCREMENT BY 50;
+
+-- Step 2: Move each sequence past the existing ids
+-- Every nextval is the upper end of a block of 50 ids, so the next block starts above MAX(id)
+SELECT setval('brands_schema.brands_seq', (SELECT COALESCE(MAX(id), 0) FROM brands_schema.brands) + 50);
+SELECT setval('brands_schema.categories_seq', (SELECT COALESCE(MAX(id), 0) FROM brands_schema.categories) + 50);
+SELECT setval('brands_schema.products_seq', (SELECT COALESCE(MAX(id), 0) FROM brands_schema.products) + 50);
+SELECT setval('brands_schema.users_seq', (SELECT COALESCE(MAX(id), 0) FROM brands_schema.users) + 50);
+
+-- Step 3: Drop the old column defaults so nothing draws ids outside the new sequences
+ALTER TABLE brands_schema.brands ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE brands_schema.brands ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE brands_schema.categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE brands_schema.categories ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE brands_schema.products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE brands_schema.products ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE brands_schema.users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE brands_schema.users ALTER COLUMN id DROP DEFAULT;
+
+DROP SEQUENCE IF EXISTS brands_schema.brands_id_seq;
+DROP SEQUENCE IF EXISTS brands_schema.categories_id_seq;
+DROP SEQUENCE IF EXISTS brands_schema.products_id_seq;
+DROP SEQUENCE IF EXISTS brands_schema.users_id_seq;
+
+-- Verify the changes
+SELECT sequencename, increment_by, last_value
+FROM pg_sequences
+WHERE schemaname = 'brands_schema'
+ORDER BY sequencename;
@@ -0,0 +1,14 @@
+-- Migration script: Index image keys for the orphan image collector
+-- The collector looks up 1000 keys at a time with IN (...) against both tables
+-- Run this against your PostgreSQL database
+
+-- Step 1: Index the image key columns and the outbox key
+CREATE INDEX IF NOT EXISTS idx_products_image_s3_key ON brands_schema.products (image_s3_key);
+CREATE INDEX IF NOT EXISTS idx_brands_image_s3_key ON brands_schema.brands (image_s3_key);
+CREATE INDEX IF NOT EXISTS idx_pending_image_deletions_s3_key ON brands_schema.pending_image_deletions (s3_key);
+
+-- Verify the changes
+SELECT tablename, indexname, indexdef
+FROM pg_indexes
+WHERE schemaname = 'brands_schema'
+AND indexname IN ('idx_products_image_s3_key', 'idx_brands_image_s3_key', 'idx_pending_image_deletions_s3_key');
@@ -0,0 +1,23 @@
+-- Migration script: Reference counts for shared (content-addressed) S3 objects
+-- Run this against your PostgreSQL database
+
+-- Step 1: Create the reference count table
+CREATE TABLE IF NOT EXISTS brands_schema.image_refs (
+    s3_key VARCHAR(500) PRIMARY KEY,
+    ref_count INTEGER NOT NULL
+);
+
+-- Step 2: Seed the counts from the images brands and products already point at
+INSERT INTO brands_schema.image_refs (s3_key, ref_count)
+SELECT image_s3_key, COUNT(*)
+FROM (
+    SELECT image_s3_key FROM brands_schema.products WHERE image_s3_key IS NOT NULL
+    UNION ALL
+    SELECT image_s3_key FROM brands_schema.brands WHERE image_s3_key IS NOT NULL
+) refs
+GROUP BY image_s3_key
+ON CONFLICT (s3_key) DO NOTHING;
+
+-- Verify the changes
+SELECT COUNT(*) AS referenced_objects, SUM(ref_count) AS references_total
+FROM brands_schema.image_refs;
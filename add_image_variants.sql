@@ -0,0 +1,16 @@
+-- Migration script: Track generated image variants
+-- Variants are stored in S3 under variants/<size>/<original key>; this flag tells
+-- the API when they can be listed
+-- Run this against your PostgreSQL database
+
+-- Step 1: Add the flag to brands and products
+ALTER TABLE brands_schema.brands ADD COLUMN IF NOT EXISTS image_variants_ready BOOLEAN DEFAULT FALSE;
+ALTER TABLE brands_schema.products ADD COLUMN IF NOT EXISTS image_variants_ready BOOLEAN DEFAULT FALSE;
+
+-- Verify the changes
+SELECT table_name, column_name, data_type, column_default
+FROM information_schema.columns
+WHERE table_schema = 'brands_schema'
+AND table_name IN ('brands', 'products')
+AND column_name = 'image_variants_ready'
+ORDER BY table_name;
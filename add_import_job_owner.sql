@@ -0,0 +1,16 @@
+-- Migration script: Record which instance owns each import job
+-- The archive of a job lives in the work directory of the instance that received
+-- it, so only that instance may fail an interrupted job at startup or resume it.
+-- Jobs created before this change have no owner and can be resumed by any
+-- instance that still holds their archive
+-- Run this against your PostgreSQL database
+
+-- Step 1: Add the owner column
+ALTER TABLE brands_schema.import_jobs ADD COLUMN IF NOT EXISTS owner VARCHAR(255);
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_schema = 'brands_schema'
+AND table_name = 'import_jobs'
+AND column_name = 'owner';
@@ -0,0 +1,22 @@
+-- Migration script: Track bulk catalog import jobs
+-- Run this against your PostgreSQL database
+
+-- Step 1: Create the import job table
+CREATE TABLE IF NOT EXISTS brands_schema.import_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    total_rows INTEGER NOT NULL,
+    processed_rows INTEGER NOT NULL,
+    imported_products INTEGER NOT NULL,
+    failed_rows INTEGER NOT NULL,
+    errors TEXT,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_schema = 'brands_schema'
+AND table_name = 'import_jobs'
+ORDER BY ordinal_position;
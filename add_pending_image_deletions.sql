@@ -0,0 +1,25 @@
+-- Migration script: Outbox for S3 objects waiting to be deleted
+-- Run this against your PostgreSQL database
+
+-- Step 1: Create the outbox table and its id sequence (pooled, 50 ids per call)
+CREATE SEQUENCE IF NOT EXISTS brands_schema.pending_image_deletions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS brands_schema.pending_image_deletions (
+    id BIGINT PRIMARY KEY,
+    s3_key VARCHAR(500) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Step 2: Index the due rows the background worker claims
+CREATE INDEX IF NOT EXISTS idx_pending_image_deletions_next_attempt
+    ON brands_schema.pending_image_deletions (next_attempt_at, id);
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_schema = 'brands_schema'
+AND table_name = 'pending_image_deletions'
+ORDER BY ordinal_position;
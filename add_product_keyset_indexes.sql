@@ -0,0 +1,16 @@
+-- Migration script: Indexes backing keyset pagination of products
+-- Run this against your PostgreSQL database
+
+-- Step 1: Index the (priority, id) ordering used by /api/products/page
+CREATE INDEX IF NOT EXISTS idx_products_priority_id ON brands_schema.products (priority, id);
+
+-- Step 2: Index the same ordering scoped to brand and category
+CREATE INDEX IF NOT EXISTS idx_products_brand_priority_id ON brands_schema.products (brand_id, priority, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_priority_id ON brands_schema.products (category_id, priority, id);
+
+-- Verify the changes
+SELECT indexname, indexdef
+FROM pg_indexes
+WHERE schemaname = 'brands_schema'
+AND tablename = 'products'
+ORDER BY indexname;
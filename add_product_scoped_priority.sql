@@ -0,0 +1,40 @@
+-- Migration script: Separate product order per brand and per category
+-- Run this against your PostgreSQL database
+
+-- Step 1: Add the sort key columns of the brand and category orderings
+ALTER TABLE brands_schema.products ADD COLUMN IF NOT EXISTS brand_priority INTEGER;
+ALTER TABLE brands_schema.products ADD COLUMN IF NOT EXISTS category_priority INTEGER;
+
+-- Step 2: Start both orderings from the current global order, spaced by 1024
+UPDATE brands_schema.products p
+SET brand_priority = r.position * 1024
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY brand_id ORDER BY priority ASC NULLS LAST, id ASC) AS position
+    FROM brands_schema.products
+) r
+WHERE p.id = r.id;
+
+UPDATE brands_schema.products p
+SET category_priority = r.position * 1024
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY category_id ORDER BY priority ASC NULLS LAST, id ASC) AS position
+    FROM brands_schema.products
+    WHERE category_id IS NOT NULL
+) r
+WHERE p.id = r.id;
+
+-- Step 3: Index the scoped orderings used by the brand and category lists and reorders
+DROP INDEX IF EXISTS brands_schema.idx_products_brand_priority_id;
+DROP INDEX IF EXISTS brands_schema.idx_products_category_priority_id;
+CREATE INDEX IF NOT EXISTS idx_products_brand_brand_priority_id
+    ON brands_schema.products (brand_id, brand_priority, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_category_priority_id
+    ON brands_schema.products (category_id, category_priority, id);
+
+-- Verify the changes
+SELECT column_name, data_type, is_nullable
+FROM information_schema.columns
+WHERE table_schema = 'brands_schema'
+AND table_name = 'products'
+AND column_name IN ('priority', 'brand_priority', 'category_priority')
+ORDER BY column_name;
@@ -0,0 +1,17 @@
+-- Migration script: Spread product priorities so a reorder only updates one row
+-- Run this against your PostgreSQL database
+
+-- Step 1: Renumber priorities in their current order with a gap of 1024 between neighbours
+UPDATE brands_schema.products p
+SET priority = r.position * 1024
+FROM (
+    SELECT id, ROW_NUMBER() OVER (ORDER BY priority ASC NULLS LAST, id ASC) AS position
+    FROM brands_schema.products
+) r
+WHERE p.id = r.id;
+
+-- Verify the changes
+SELECT id, name, priority
+FROM brands_schema.products
+ORDER BY priority, id
+LIMIT 20;
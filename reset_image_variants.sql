@@ -0,0 +1,17 @@
+-- Migration script: Regenerate image variants under format-specific keys
+-- Variant keys now end in the extension of the format they are encoded in
+-- (variants/<size>/<original key>.jpg or .png). Clearing the flag makes the
+-- backfill sweep store every variant again under its new key; variants under the
+-- old keys are no longer referenced and are removed by the orphan collector
+-- Run this against your PostgreSQL database
+
+-- Step 1: Clear the flag on brands and products
+UPDATE brands_schema.brands SET image_variants_ready = FALSE WHERE image_variants_ready;
+UPDATE brands_schema.products SET image_variants_ready = FALSE WHERE image_variants_ready;
+
+-- Verify the changes
+SELECT 'brands' AS table_name, COUNT(*) AS awaiting_variants
+FROM brands_schema.brands WHERE image_s3_key IS NOT NULL AND NOT image_variants_ready
+UNION ALL
+SELECT 'products', COUNT(*)
+FROM brands_schema.products WHERE image_s3_key IS NOT NULL AND NOT image_variants_ready;
@@ -2,23 +2,36 @@ package com.system.brands.Controller;
 
 import com.system.brands.Dto.BrandRequestDto;
 import com.system.brands.Dto.BrandResponseDto;
+import com.system.brands.Dto.ImageUploadCompleteDto;
+import com.system.brands.Dto.ImageUploadRequestDto;
+import com.system.brands.Dto.ImageUploadResponseDto;
 import com.system.brands.Exception.BadRequestException;
 import com.system.brands.Service.BrandService;
+import com.system.brands.Service.CatalogResponseCache;
+import com.system.brands.Service.CatalogSnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -35,16 +48,23 @@ public class BrandController {
         private static final long MAX_FILE_SIZE = 50 * 1024 * 1024; // 50MB
 
         private final BrandService brandService;
+        private final CatalogSnapshotService catalogSnapshotService;
+        private final CatalogResponseCache catalogResponseCache;
 
         @GetMapping
         @Operation(summary = "Get all brands", description = "Retrieve a list of all brands")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved list", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BrandResponseDto.class)))),
+                        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
                         @ApiResponse(responseCode = "401", description = "Unauthorized")
         })
-        public ResponseEntity<List<BrandResponseDto>> getAllBrands() {
-                List<BrandResponseDto> brands = brandService.getAllBrands();
-                return ResponseEntity.ok(brands);
+        public ResponseEntity<byte[]> getAllBrands(WebRequest webRequest) {
+                if (CatalogResponses.checkNotModified(catalogSnapshotService.getETag(), webRequest)) {
+                        return null;
+                }
+                CatalogResponseCache.CachedResponse brands = catalogResponseCache.get("brands",
+                                brandService::getAllBrands);
+                return CatalogResponses.toJsonResponse(brands, webRequest);
         }
 
         @GetMapping("/{id}")
@@ -97,14 +117,16 @@ public class BrandController {
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Brand updated successfully"),
                         @ApiResponse(responseCode = "404", description = "Brand not found"),
-                        @ApiResponse(responseCode = "409", description = "Brand name already exists"),
+                        @ApiResponse(responseCode = "409", description = "Brand name already exists or brand was changed by a concurrent update"),
+                        @ApiResponse(responseCode = "412", description = "Brand version does not match If-Match"),
                         @ApiResponse(responseCode = "401", description = "Unauthorized")
         })
         public ResponseEntity<BrandResponseDto> updateBrand(
                         @PathVariable Integer id,
                         @Parameter(description = "Brand name (optional)") @RequestParam(value = "name", required = false) String name,
                         @Parameter(description = "Brand name in English (optional)") @RequestParam(value = "nameEnglish", required = false) String nameEnglish,
-                        @Parameter(description = "Brand image file (optional)") @RequestPart(value = "image", required = false) MultipartFile image)
+                        @Parameter(description = "Brand image file (optional)") @RequestPart(value = "image", required = false) MultipartFile image,
+                        @Parameter(description = "Brand version the update is based on (optional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
                         throws IOException {
                 // Validate image if provided
                 if (image != null && !image.isEmpty()) {
@@ -117,7 +139,8 @@ public class BrandController {
                                 .name(name != null ? name.trim() : null)
                                 .nameEnglish(nameEnglish != null ? nameEnglish.trim() : null)
                                 .build();
-                BrandResponseDto brand = brandService.updateBrand(id, requestDto, image);
+                BrandResponseDto brand = brandService.updateBrand(id, requestDto, image,
+                                VersionTags.parseIfMatch(ifMatch));
                 return ResponseEntity.ok(brand);
         }
 
@@ -133,6 +156,65 @@ public class BrandController {
                 return ResponseEntity.noContent().build();
         }
 
+        @PutMapping(value = "/{id}/image", consumes = { MediaType.IMAGE_JPEG_VALUE, "image/jpg",
+                        MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp", "image/bmp" })
+        @Operation(summary = "Replace brand image", description = "Upload a new brand image as the raw request body (Content-Type image/*). The body is streamed to S3 as it arrives without being buffered to disk; the old image is removed afterwards.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Brand image replaced successfully"),
+                        @ApiResponse(responseCode = "400", description = "Empty body, unsupported type or larger than 50MB"),
+                        @ApiResponse(responseCode = "404", description = "Brand not found"),
+                        @ApiResponse(responseCode = "412", description = "Brand version does not match If-Match"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<BrandResponseDto> replaceBrandImage(
+                        @PathVariable Integer id,
+                        HttpServletRequest request,
+                        @Parameter(description = "Brand version the update is based on (optional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+                        throws IOException {
+                String contentType = StreamedImages.contentType(request, ALLOWED_CONTENT_TYPES);
+                log.info("Streaming brand image: id={}, contentLength={}, contentType={}", id,
+                                request.getContentLengthLong(), contentType);
+                try (InputStream body = StreamedImages.body(request, MAX_FILE_SIZE)) {
+                        BrandResponseDto brand = brandService.replaceBrandImage(id, body,
+                                        request.getContentLengthLong(), contentType, VersionTags.parseIfMatch(ifMatch));
+                        return ResponseEntity.ok(brand);
+                }
+        }
+
+        @PostMapping(value = "/{id}/image/upload-url", consumes = MediaType.APPLICATION_JSON_VALUE)
+        @Operation(summary = "Request a direct brand image upload", description = "Issue a presigned URL to PUT a new brand image straight to S3 with the returned headers, so the bytes never pass through this server. Call the upload-complete endpoint with the returned key afterwards. If uploadRequired is false S3 already holds identical content and the upload can be skipped.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Upload URL issued", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImageUploadResponseDto.class))),
+                        @ApiResponse(responseCode = "400", description = "Unsupported type or larger than 50MB"),
+                        @ApiResponse(responseCode = "404", description = "Brand not found"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<ImageUploadResponseDto> requestBrandImageUpload(
+                        @PathVariable Integer id,
+                        @Valid @RequestBody ImageUploadRequestDto requestDto) {
+                ImageUploads.validate(requestDto, ALLOWED_CONTENT_TYPES, MAX_FILE_SIZE);
+                ImageUploadResponseDto upload = brandService.presignBrandImageUpload(id, requestDto);
+                return ResponseEntity.ok(upload);
+        }
+
+        @PostMapping(value = "/{id}/image/upload-complete", consumes = MediaType.APPLICATION_JSON_VALUE)
+        @Operation(summary = "Attach a directly uploaded brand image", description = "Make the image uploaded through a presigned URL the brand's image; the old image is removed afterwards.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Brand image replaced successfully"),
+                        @ApiResponse(responseCode = "400", description = "No finished image upload under the given key"),
+                        @ApiResponse(responseCode = "404", description = "Brand not found"),
+                        @ApiResponse(responseCode = "412", description = "Brand version does not match If-Match"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<BrandResponseDto> completeBrandImageUpload(
+                        @PathVariable Integer id,
+                        @Valid @RequestBody ImageUploadCompleteDto requestDto,
+                        @Parameter(description = "Brand version the update is based on (optional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+                BrandResponseDto brand = brandService.attachBrandImage(id, requestDto.getS3Key(),
+                                VersionTags.parseIfMatch(ifMatch));
+                return ResponseEntity.ok(brand);
+        }
+
         @DeleteMapping("/{id}/image")
         @Operation(summary = "Delete brand image", description = "Delete only the image of a brand from S3 storage without deleting the brand itself")
         @ApiResponses(value = {
@@ -0,0 +1,54 @@
+package com.system.brands.Controller;
+
+import com.system.brands.Service.CatalogResponseCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Writes cached catalog list bodies, picking the gzipped copy when the client
+ * accepts it. The two encodings are different representations, so each gets its
+ * own strong ETag.
+ */
+final class CatalogResponses {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private CatalogResponses() {
+    }
+
+    /**
+     * Conditional check against the ETag of the encoding this request would get,
+     * which is also the ETag sent with the response.
+     *
+     * @param eTag Catalog ETag of the identity encoding
+     * @return true if the client's copy is current and a 304 has been prepared
+     */
+    static boolean checkNotModified(String eTag, WebRequest webRequest) {
+        return webRequest.checkNotModified(acceptsGzip(webRequest) ? gzipETag(eTag) : eTag);
+    }
+
+    static ResponseEntity<byte[]> toJsonResponse(CatalogResponseCache.CachedResponse cached, WebRequest webRequest) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(webRequest)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.getGzip());
+        }
+        return builder.body(cached.getJson());
+    }
+
+    /**
+     * {@code "epoch-version"} becomes {@code "epoch-version-gzip"}
+     */
+    static String gzipETag(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    private static boolean acceptsGzip(WebRequest webRequest) {
+        return CatalogResponseCache.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+}
@@ -2,17 +2,22 @@ package com.system.brands.Controller;
 
 import com.system.brands.Dto.CategoryRequestDto;
 import com.system.brands.Dto.CategoryResponseDto;
+import com.system.brands.Service.CatalogSnapshotService;
 import com.system.brands.Service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,16 +29,21 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogSnapshotService catalogSnapshotService;
 
     @GetMapping
     @Operation(summary = "Get all categories", description = "Retrieve a list of all categories")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    public ResponseEntity<List<CategoryResponseDto>> getAllCategories() {
+    public ResponseEntity<List<CategoryResponseDto>> getAllCategories(WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogSnapshotService.getETag())) {
+            return null;
+        }
         List<CategoryResponseDto> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categories);
     }
 
     @GetMapping("/{id}")
@@ -65,13 +75,16 @@ public class CategoryController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Category updated successfully"),
             @ApiResponse(responseCode = "404", description = "Category not found"),
-            @ApiResponse(responseCode = "409", description = "Category name already exists"),
+            @ApiResponse(responseCode = "409", description = "Category name already exists or category was changed by a concurrent update"),
+            @ApiResponse(responseCode = "412", description = "Category version does not match If-Match"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     public ResponseEntity<CategoryResponseDto> updateCategory(
             @PathVariable Integer id,
-            @Valid @RequestBody CategoryRequestDto requestDto) {
-        CategoryResponseDto category = categoryService.updateCategory(id, requestDto);
+            @Valid @RequestBody CategoryRequestDto requestDto,
+            @Parameter(description = "Category version the update is based on (optional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CategoryResponseDto category = categoryService.updateCategory(id, requestDto,
+                VersionTags.parseIfMatch(ifMatch));
         return ResponseEntity.ok(category);
     }
 
@@ -0,0 +1,128 @@
+package com.system.brands.Controller;
+
+import com.system.brands.Service.ImageCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves stored images through the local disk cache, so a hot image costs one
+ * local read instead of a storage round trip. Supports conditional and single
+ * range requests. The body goes out with sendfile where the connector supports
+ * it; the cache keeps an evicted file in place long enough for that.
+ * <p>
+ * Not available with presigned download URLs: the bucket is private then, and this
+ * endpoint would serve every image to anyone without a signature.
+ */
+@RestController
+@RequestMapping(ImageController.BASE_PATH)
+@ConditionalOnProperty(name = "aws.s3.presigned-urls", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+@Tag(name = "Images", description = "Cached delivery of brand and product images")
+public class ImageController {
+
+    static final String BASE_PATH = "/images";
+
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    private final ImageCacheService imageCacheService;
+
+    @GetMapping("/**")
+    @Operation(summary = "Get an image", description = "Download a brand or product image (or one of its variants) by its key. Supports If-None-Match, If-Modified-Since and a single byte Range.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Image content"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the image"),
+            @ApiResponse(responseCode = "304", description = "Not modified"),
+            @ApiResponse(responseCode = "404", description = "No image under this key"),
+            @ApiResponse(responseCode = "416", description = "Range outside the image")
+    })
+    public void getImage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String key = request.getRequestURI().substring(request.getContextPath().length() + BASE_PATH.length() + 1);
+        ImageCacheService.CachedImage image = imageCacheService.get(key);
+        if (image == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        send(request, response, image);
+    }
+
+    private static void send(HttpServletRequest request, HttpServletResponse response,
+            ImageCacheService.CachedImage image) throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(image.getETag(), image.getLastModified())) {
+            return;
+        }
+        response.setContentType(image.getContentType());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long size = image.getSize();
+        long start = 0;
+        long end = size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, image)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Several ranges would need a multipart body; the whole image is sent instead
+            if (ranges.size() == 1) {
+                HttpRange requested = ranges.get(0);
+                if (size == 0 || requested.getRangeStart(size) >= size) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = requested.getRangeStart(size);
+                end = requested.getRangeEnd(size) + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+            }
+        }
+
+        if ("HEAD".equals(request.getMethod())) {
+            response.setContentLengthLong(end - start);
+            return;
+        }
+        FileResponses.send(request, response, image.getFile(), start, end);
+    }
+
+    /**
+     * A Range is only honoured if If-Range, when present, still names this image.
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, ImageCacheService.CachedImage image) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(image.getETag());
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date >= 0 && image.getLastModified() / 1000 <= date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
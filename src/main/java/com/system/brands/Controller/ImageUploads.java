@@ -0,0 +1,36 @@
+package com.system.brands.Controller;
+
+import com.system.brands.Dto.ImageUploadRequestDto;
+import com.system.brands.Exception.BadRequestException;
+
+import java.util.List;
+
+/**
+ * Validates requests for direct uploads, whose bytes go straight to storage and
+ * are never seen by the controllers.
+ */
+final class ImageUploads {
+
+    private ImageUploads() {
+    }
+
+    /**
+     * Validates the declared size and content type of a direct upload, normalizing the type.
+     */
+    static void validate(ImageUploadRequestDto requestDto, List<String> allowedContentTypes, long maxSize) {
+        if (requestDto.getContentLength() > maxSize) {
+            throw new BadRequestException(
+                    String.format("File size exceeds maximum allowed size of %d MB. Your file: %.2f MB",
+                            maxSize / (1024 * 1024),
+                            requestDto.getContentLength() / (1024.0 * 1024.0)));
+        }
+
+        String contentType = requestDto.getContentType().trim().toLowerCase();
+        if (!allowedContentTypes.contains(contentType)) {
+            throw new BadRequestException(
+                    String.format("Invalid file type: %s. Allowed types: %s",
+                            requestDto.getContentType(), String.join(", ", allowedContentTypes)));
+        }
+        requestDto.setContentType(contentType);
+    }
+}
@@ -0,0 +1,63 @@
+package com.system.brands.Controller;
+
+import com.system.brands.Service.LocalStorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves images kept by the local storage backend under the URLs it hands out.
+ * A key never names a different image later, so responses are cacheable for good.
+ */
+@RestController
+@RequestMapping(LocalFileController.BASE_PATH)
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+@RequiredArgsConstructor
+@Tag(name = "Local Files", description = "Images stored on the local filesystem")
+public class LocalFileController {
+
+    static final String BASE_PATH = "/files";
+
+    private final LocalStorageService localStorageService;
+
+    @GetMapping("/**")
+    @Operation(summary = "Get a stored image", description = "Download an image stored by the local storage backend")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Image content"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given date"),
+            @ApiResponse(responseCode = "404", description = "No image under this key")
+    })
+    public void getFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String key = request.getRequestURI().substring(request.getContextPath().length() + BASE_PATH.length() + 1);
+        Path file = localStorageService.findFile(key);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (new ServletWebRequest(request, response).checkNotModified(lastModified)) {
+            return;
+        }
+        response.setContentType(localStorageService.contentTypeOf(key));
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue());
+        FileResponses.send(request, response, file, 0, Files.size(file));
+    }
+}
@@ -1,26 +1,45 @@
 package com.system.brands.Controller;
 
+import com.system.brands.Dto.ImageUploadCompleteDto;
+import com.system.brands.Dto.ImageUploadRequestDto;
+import com.system.brands.Dto.ImageUploadResponseDto;
+import com.system.brands.Dto.ImportJobResponseDto;
+import com.system.brands.Dto.ProductBatchOrderRequestDto;
 import com.system.brands.Dto.ProductOrderRequestDto;
+import com.system.brands.Dto.ProductPageResponseDto;
 import com.system.brands.Dto.ProductRequestDto;
 import com.system.brands.Dto.ProductResponseDto;
 import com.system.brands.Exception.BadRequestException;
+import com.system.brands.Service.CatalogImportService;
+import com.system.brands.Service.CatalogResponseCache;
+import com.system.brands.Service.CatalogSnapshotService;
+import com.system.brands.Service.ProductExportService;
 import com.system.brands.Service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -37,22 +56,74 @@ public class ProductController {
         private static final long MAX_FILE_SIZE = 50 * 1024 * 1024; // 50MB
 
         private final ProductService productService;
+        private final CatalogSnapshotService catalogSnapshotService;
+        private final CatalogResponseCache catalogResponseCache;
+        private final ProductExportService productExportService;
+        private final CatalogImportService catalogImportService;
 
         @GetMapping
         @Operation(summary = "Get all products", description = "Retrieve a list of all products")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved list", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ProductResponseDto.class)))),
+                        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag")
         })
-        public ResponseEntity<List<ProductResponseDto>> getAllProducts() {
-                List<ProductResponseDto> products = productService.getAllProducts();
-                return ResponseEntity.ok(products);
+        public ResponseEntity<byte[]> getAllProducts(WebRequest webRequest) {
+                if (CatalogResponses.checkNotModified(catalogSnapshotService.getETag(), webRequest)) {
+                        return null;
+                }
+                CatalogResponseCache.CachedResponse products = catalogResponseCache.get("products",
+                                productService::getAllProducts);
+                return CatalogResponses.toJsonResponse(products, webRequest);
+        }
+
+        @GetMapping("/page")
+        @Operation(summary = "Get a page of products", description = "Retrieve products in product order, one page at a time. Pass the returned nextCursor to fetch the following page.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+                        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+        })
+        public ResponseEntity<ProductPageResponseDto> getProductsPage(
+                        @Parameter(description = "Cursor returned by the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+                        @Parameter(description = "Page size (default 50, max 200)") @RequestParam(value = "size", required = false) Integer size,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(catalogSnapshotService.getETag())) {
+                        return null;
+                }
+                ProductPageResponseDto page = productService.getProductsPage(cursor, size);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
+        }
+
+        @GetMapping("/export")
+        @Operation(summary = "Export all products", description = "Stream the full catalog in product order as NDJSON (one product per line) or as a single JSON array")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Export stream started"),
+                        @ApiResponse(responseCode = "400", description = "Unsupported format")
+        })
+        public ResponseEntity<StreamingResponseBody> exportProducts(
+                        @Parameter(description = "ndjson (default) or json") @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+                boolean jsonArray;
+                MediaType contentType;
+                if ("ndjson".equalsIgnoreCase(format)) {
+                        jsonArray = false;
+                        contentType = MediaType.APPLICATION_NDJSON;
+                } else if ("json".equalsIgnoreCase(format)) {
+                        jsonArray = true;
+                        contentType = MediaType.APPLICATION_JSON;
+                } else {
+                        throw new BadRequestException("Unsupported export format: " + format + ". Use ndjson or json");
+                }
+
+                StreamingResponseBody body = out -> productExportService.exportProducts(out, jsonArray);
+                return ResponseEntity.ok().contentType(contentType).body(body);
         }
 
         @PutMapping("/reorder")
-        @Operation(summary = "Reorder a product", description = "Change the order position of a product. Other products will be shifted accordingly.")
+        @Operation(summary = "Reorder a product", description = "Move a product to a 1-based position among all products, the products of its brand, or the products of its category. Only the moved product is updated.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Product reordered successfully"),
                         @ApiResponse(responseCode = "404", description = "Product not found"),
+                        @ApiResponse(responseCode = "409", description = "Product was moved to another brand or category meanwhile"),
                         @ApiResponse(responseCode = "401", description = "Unauthorized")
         })
         public ResponseEntity<ProductResponseDto> reorderProduct(
@@ -61,6 +132,20 @@ public class ProductController {
                 return ResponseEntity.ok(product);
         }
 
+        @PutMapping("/reorder/batch")
+        @Operation(summary = "Reorder several products at once", description = "Put the listed products in the given order within one scope. They take over the positions they occupy now; all other products stay where they are. Listing every product of the scope applies a full reordering.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Products reordered successfully", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ProductResponseDto.class)))),
+                        @ApiResponse(responseCode = "400", description = "Empty or duplicate product IDs, or products from different scopes"),
+                        @ApiResponse(responseCode = "404", description = "Product not found"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<List<ProductResponseDto>> reorderProducts(
+                        @Valid @RequestBody ProductBatchOrderRequestDto requestDto) {
+                List<ProductResponseDto> products = productService.reorderProducts(requestDto);
+                return ResponseEntity.ok(products);
+        }
+
         @GetMapping("/{id:\\d+}")
         @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
         @ApiResponses(value = {
@@ -75,21 +160,69 @@ public class ProductController {
         @GetMapping("/brand/{brandId}")
         @Operation(summary = "Get products by brand ID", description = "Retrieve all products belonging to a specific brand")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved products", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ProductResponseDto.class)))),
+                        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag")
         })
-        public ResponseEntity<List<ProductResponseDto>> getProductsByBrandId(@PathVariable Integer brandId) {
-                List<ProductResponseDto> products = productService.getProductsByBrandId(brandId);
-                return ResponseEntity.ok(products);
+        public ResponseEntity<byte[]> getProductsByBrandId(@PathVariable Integer brandId, WebRequest webRequest) {
+                if (CatalogResponses.checkNotModified(catalogSnapshotService.getETag(), webRequest)) {
+                        return null;
+                }
+                CatalogResponseCache.CachedResponse products = catalogResponseCache.get("products:brand:" + brandId,
+                                () -> productService.getProductsByBrandId(brandId));
+                return CatalogResponses.toJsonResponse(products, webRequest);
+        }
+
+        @GetMapping("/brand/{brandId}/page")
+        @Operation(summary = "Get a page of products by brand ID", description = "Retrieve products of a brand in product order, one page at a time")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+                        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+        })
+        public ResponseEntity<ProductPageResponseDto> getProductsPageByBrandId(
+                        @PathVariable Integer brandId,
+                        @Parameter(description = "Cursor returned by the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+                        @Parameter(description = "Page size (default 50, max 200)") @RequestParam(value = "size", required = false) Integer size,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(catalogSnapshotService.getETag())) {
+                        return null;
+                }
+                ProductPageResponseDto page = productService.getProductsPageByBrandId(brandId, cursor, size);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
         }
 
         @GetMapping("/category/{categoryId}")
         @Operation(summary = "Get products by category ID", description = "Retrieve all products belonging to a specific category")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved products", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ProductResponseDto.class)))),
+                        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag")
         })
-        public ResponseEntity<List<ProductResponseDto>> getProductsByCategoryId(@PathVariable Integer categoryId) {
-                List<ProductResponseDto> products = productService.getProductsByCategoryId(categoryId);
-                return ResponseEntity.ok(products);
+        public ResponseEntity<byte[]> getProductsByCategoryId(@PathVariable Integer categoryId, WebRequest webRequest) {
+                if (CatalogResponses.checkNotModified(catalogSnapshotService.getETag(), webRequest)) {
+                        return null;
+                }
+                CatalogResponseCache.CachedResponse products = catalogResponseCache.get("products:category:" + categoryId,
+                                () -> productService.getProductsByCategoryId(categoryId));
+                return CatalogResponses.toJsonResponse(products, webRequest);
+        }
+
+        @GetMapping("/category/{categoryId}/page")
+        @Operation(summary = "Get a page of products by category ID", description = "Retrieve products of a category in product order, one page at a time")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+                        @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+        })
+        public ResponseEntity<ProductPageResponseDto> getProductsPageByCategoryId(
+                        @PathVariable Integer categoryId,
+                        @Parameter(description = "Cursor returned by the previous page") @RequestParam(value = "cursor", required = false) String cursor,
+                        @Parameter(description = "Page size (default 50, max 200)") @RequestParam(value = "size", required = false) Integer size,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(catalogSnapshotService.getETag())) {
+                        return null;
+                }
+                ProductPageResponseDto page = productService.getProductsPageByCategoryId(categoryId, cursor, size);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
         }
 
         @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -127,11 +260,68 @@ public class ProductController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(product);
         }
 
+        @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        @Operation(summary = "Import products in bulk", description = "Start a background import from a ZIP archive with products.json or products.csv at its root (fields brandId, categoryId, name, packaging, isNew, isHidden, image) plus the images the manifest refers to by path. Poll the returned job for progress.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "Import job started"),
+                        @ApiResponse(responseCode = "400", description = "Missing or invalid archive or manifest"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<ImportJobResponseDto> importProducts(
+                        @Parameter(description = "ZIP archive with manifest and images", required = true) @RequestPart("archive") MultipartFile archive)
+                        throws IOException {
+                log.info("Received import archive: name={}, size={} bytes", archive.getOriginalFilename(),
+                                archive.getSize());
+                ImportJobResponseDto job = catalogImportService.startImport(archive);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        }
+
+        @PostMapping(value = "/import", consumes = { "application/zip", MediaType.APPLICATION_OCTET_STREAM_VALUE })
+        @Operation(summary = "Import products in bulk from a raw archive", description = "Same as the multipart import, with the ZIP archive as the request body. The body is streamed to disk, so archives may exceed the 50MB multipart limit up to catalog.import.max-archive-size-mb.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "Import job started"),
+                        @ApiResponse(responseCode = "400", description = "Missing, invalid or oversized archive or manifest"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<ImportJobResponseDto> importProductsFromBody(HttpServletRequest request)
+                        throws IOException {
+                log.info("Receiving import archive as request body: contentLength={}", request.getContentLengthLong());
+                try (InputStream archive = request.getInputStream()) {
+                        ImportJobResponseDto job = catalogImportService.startImport(archive);
+                        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+                }
+        }
+
+        @GetMapping("/import/{jobId}")
+        @Operation(summary = "Get import job progress", description = "Retrieve status and progress of a bulk import job")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved import job"),
+                        @ApiResponse(responseCode = "404", description = "Import job not found"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<ImportJobResponseDto> getImportJob(@PathVariable String jobId) {
+                return ResponseEntity.ok(catalogImportService.getImportJob(jobId));
+        }
+
+        @PostMapping("/import/{jobId}/resume")
+        @Operation(summary = "Resume an import job", description = "Continue a failed or interrupted import after its last committed batch")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "Import job resumed"),
+                        @ApiResponse(responseCode = "400", description = "Job is running, completed or its archive is gone"),
+                        @ApiResponse(responseCode = "404", description = "Import job not found"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<ImportJobResponseDto> resumeImport(@PathVariable String jobId) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(catalogImportService.resumeImport(jobId));
+        }
+
         @PutMapping(value = "/{id:\\d+}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
         @Operation(summary = "Update a product", description = "Update an existing product by its ID. All fields are optional - only provided fields will be updated.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Product updated successfully"),
                         @ApiResponse(responseCode = "404", description = "Product or Brand not found"),
+                        @ApiResponse(responseCode = "409", description = "Product was changed by a concurrent update"),
+                        @ApiResponse(responseCode = "412", description = "Product version does not match If-Match"),
                         @ApiResponse(responseCode = "401", description = "Unauthorized")
         })
         public ResponseEntity<ProductResponseDto> updateProduct(
@@ -142,7 +332,8 @@ public class ProductController {
                         @Parameter(description = "Product packaging information (optional)") @RequestParam(value = "packaging", required = false) String packaging,
                         @Parameter(description = "Whether the product is new (optional)") @RequestParam(value = "isNew", required = false) Boolean isNew,
                         @Parameter(description = "Whether the product is hidden (optional)") @RequestParam(value = "isHidden", required = false) Boolean isHidden,
-                        @Parameter(description = "Product image file (optional)") @RequestPart(value = "image", required = false) MultipartFile image)
+                        @Parameter(description = "Product image file (optional)") @RequestPart(value = "image", required = false) MultipartFile image,
+                        @Parameter(description = "Product version the update is based on (optional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
                         throws IOException {
                 // Validate image if provided
                 if (image != null && !image.isEmpty()) {
@@ -159,7 +350,8 @@ public class ProductController {
                                 .isNew(isNew)
                                 .isHidden(isHidden)
                                 .build();
-                ProductResponseDto product = productService.updateProduct(id, requestDto, image);
+                ProductResponseDto product = productService.updateProduct(id, requestDto, image,
+                                VersionTags.parseIfMatch(ifMatch));
                 return ResponseEntity.ok(product);
         }
 
@@ -175,6 +367,65 @@ public class ProductController {
                 return ResponseEntity.noContent().build();
         }
 
+        @PutMapping(value = "/{id:\\d+}/image", consumes = { MediaType.IMAGE_JPEG_VALUE, "image/jpg",
+                        MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp", "image/bmp" })
+        @Operation(summary = "Replace product image", description = "Upload a new product image as the raw request body (Content-Type image/*). The body is streamed to S3 as it arrives without being buffered to disk; the old image is removed afterwards.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Product image replaced successfully"),
+                        @ApiResponse(responseCode = "400", description = "Empty body, unsupported type or larger than 50MB"),
+                        @ApiResponse(responseCode = "404", description = "Product not found"),
+                        @ApiResponse(responseCode = "412", description = "Product version does not match If-Match"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<ProductResponseDto> replaceProductImage(
+                        @PathVariable Integer id,
+                        HttpServletRequest request,
+                        @Parameter(description = "Product version the update is based on (optional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+                        throws IOException {
+                String contentType = StreamedImages.contentType(request, ALLOWED_CONTENT_TYPES);
+                log.info("Streaming product image: id={}, contentLength={}, contentType={}", id,
+                                request.getContentLengthLong(), contentType);
+                try (InputStream body = StreamedImages.body(request, MAX_FILE_SIZE)) {
+                        ProductResponseDto product = productService.replaceProductImage(id, body,
+                                        request.getContentLengthLong(), contentType, VersionTags.parseIfMatch(ifMatch));
+                        return ResponseEntity.ok(product);
+                }
+        }
+
+        @PostMapping(value = "/{id:\\d+}/image/upload-url", consumes = MediaType.APPLICATION_JSON_VALUE)
+        @Operation(summary = "Request a direct product image upload", description = "Issue a presigned URL to PUT a new product image straight to S3 with the returned headers, so the bytes never pass through this server. Call the upload-complete endpoint with the returned key afterwards. If uploadRequired is false S3 already holds identical content and the upload can be skipped.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Upload URL issued", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImageUploadResponseDto.class))),
+                        @ApiResponse(responseCode = "400", description = "Unsupported type or larger than 50MB"),
+                        @ApiResponse(responseCode = "404", description = "Product not found"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<ImageUploadResponseDto> requestProductImageUpload(
+                        @PathVariable Integer id,
+                        @Valid @RequestBody ImageUploadRequestDto requestDto) {
+                ImageUploads.validate(requestDto, ALLOWED_CONTENT_TYPES, MAX_FILE_SIZE);
+                ImageUploadResponseDto upload = productService.presignProductImageUpload(id, requestDto);
+                return ResponseEntity.ok(upload);
+        }
+
+        @PostMapping(value = "/{id:\\d+}/image/upload-complete", consumes = MediaType.APPLICATION_JSON_VALUE)
+        @Operation(summary = "Attach a directly uploaded product image", description = "Make the image uploaded through a presigned URL the product's image; the old image is removed afterwards.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Product image replaced successfully"),
+                        @ApiResponse(responseCode = "400", description = "No finished image upload under the given key"),
+                        @ApiResponse(responseCode = "404", description = "Product not found"),
+                        @ApiResponse(responseCode = "412", description = "Product version does not match If-Match"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized")
+        })
+        public ResponseEntity<ProductResponseDto> completeProductImageUpload(
+                        @PathVariable Integer id,
+                        @Valid @RequestBody ImageUploadCompleteDto requestDto,
+                        @Parameter(description = "Product version the update is based on (optional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+                ProductResponseDto product = productService.attachProductImage(id, requestDto.getS3Key(),
+                                VersionTags.parseIfMatch(ifMatch));
+                return ResponseEntity.ok(product);
+        }
+
         @DeleteMapping("/{id:\\d+}/image")
         @Operation(summary = "Delete product image", description = "Delete only the image of a product from S3 storage without deleting the product itself")
         @ApiResponses(value = {
@@ -0,0 +1,107 @@
+package com.system.brands.Controller;
+
+import com.system.brands.Exception.BadRequestException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Validates images sent as the raw request body. The body is handed on as a
+ * stream, so it never touches the multipart resolver or the local disk.
+ */
+final class StreamedImages {
+
+    private StreamedImages() {
+    }
+
+    /**
+     * @return The request's media type without parameters, e.g. {@code image/png}
+     */
+    static String contentType(HttpServletRequest request, List<String> allowedContentTypes) {
+        String contentType = null;
+        try {
+            if (request.getContentType() != null) {
+                MediaType mediaType = MediaType.parseMediaType(request.getContentType());
+                contentType = (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase();
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Reported as an invalid type below
+        }
+        if (contentType == null || !allowedContentTypes.contains(contentType)) {
+            throw new BadRequestException(String.format("Invalid file type: %s. Allowed types: %s",
+                    request.getContentType(), String.join(", ", allowedContentTypes)));
+        }
+        return contentType;
+    }
+
+    /**
+     * Opens the body, rejecting a declared Content-Length above {@code maxSize} up
+     * front and a chunked body as soon as it grows past it, or when it ends
+     * without a single byte.
+     */
+    static InputStream body(HttpServletRequest request, long maxSize) throws IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength == 0) {
+            throw new BadRequestException("Image body is empty");
+        }
+        if (contentLength > maxSize) {
+            throw new BadRequestException(tooLarge(maxSize));
+        }
+        return new LimitedInputStream(request.getInputStream(), maxSize);
+    }
+
+    private static String tooLarge(long maxSize) {
+        return String.format("File size exceeds maximum allowed size of %d MB", maxSize / (1024 * 1024));
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long maxSize;
+        private long count;
+
+        LimitedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            } else {
+                requireContent();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            } else if (n < 0) {
+                requireContent();
+            }
+            return n;
+        }
+
+        private void requireContent() {
+            if (count == 0) {
+                throw new BadRequestException("Image body is empty");
+            }
+        }
+
+        private void count(long n) {
+            count += n;
+            if (count > maxSize) {
+                throw new BadRequestException(tooLarge(maxSize));
+            }
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.system.brands.Controller;
 
 import com.system.brands.Dto.UserDto;
-import com.system.brands.Model.User;
+import com.system.brands.Security.AuthenticatedUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -35,7 +35,7 @@ public class UserController {
             return ResponseEntity.status(401).build();
         }
 
-        User currentUser = (User) authentication.getPrincipal();
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
         
         UserDto userDto = UserDto.builder()
                 .id(currentUser.getId())
@@ -0,0 +1,34 @@
+package com.system.brands.Controller;
+
+import com.system.brands.Exception.BadRequestException;
+
+/**
+ * Reads the entity version a client sends in If-Match. Accepts the bare version
+ * ({@code 3}) as well as an entity tag ({@code "3"} or {@code W/"3"}).
+ */
+final class VersionTags {
+
+    private VersionTags() {
+    }
+
+    /**
+     * @return The expected version, or null when the header is absent or "*"
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("If-Match must hold the version of the resource");
+        }
+    }
+}
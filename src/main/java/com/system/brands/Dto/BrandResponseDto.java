@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -32,6 +33,14 @@ public class BrandResponseDto {
     @Schema(description = "S3 URL to brand image", example = "https://brands-bucket-818.s3.us-east-1.amazonaws.com/brands/uuid.png")
     private String imageUrl;
 
+    @JsonProperty("imageVariants")
+    @Schema(description = "URLs of resized copies of the brand image by size (thumbnail, medium, full); absent until generated", example = "{\"thumbnail\": \"https://brands-bucket-818.s3.us-east-1.amazonaws.com/variants/thumbnail/brands/uuid.png\"}")
+    private Map<String, String> imageVariants;
+
+    @JsonProperty("version")
+    @Schema(description = "Version to send in If-Match when updating", example = "3")
+    private Long version;
+
     @JsonProperty("products")
     @Schema(description = "List of products under this brand")
     private List<ProductResponseDto> products;
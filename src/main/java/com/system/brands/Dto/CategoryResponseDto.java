@@ -21,4 +21,8 @@ public class CategoryResponseDto {
     @JsonProperty("name")
     @Schema(description = "Category name", example = "Electronics")
     private String name;
+
+    @JsonProperty("version")
+    @Schema(description = "Version to send in If-Match when updating", example = "3")
+    private Long version;
 }
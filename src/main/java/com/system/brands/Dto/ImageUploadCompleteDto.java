@@ -0,0 +1,22 @@
+package com.system.brands.Dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Image uploaded through a presigned URL, to attach to a brand or product")
+public class ImageUploadCompleteDto {
+
+    @NotBlank(message = "S3 key is required")
+    @JsonProperty("s3Key")
+    @Schema(description = "Key returned with the upload URL", example = "products/3f9c2a4e-8d1b-4c55-9a57-0b7e3f1d2c6a.png")
+    private String s3Key;
+}
@@ -0,0 +1,36 @@
+package com.system.brands.Dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Image the client is about to upload straight to S3")
+public class ImageUploadRequestDto {
+
+    @NotBlank(message = "Content type is required")
+    @JsonProperty("contentType")
+    @Schema(description = "Content-Type the upload will be sent with", example = "image/png")
+    private String contentType;
+
+    @NotNull(message = "Content length is required")
+    @Positive(message = "Content length must be positive")
+    @JsonProperty("contentLength")
+    @Schema(description = "Exact size of the image in bytes", example = "245760")
+    private Long contentLength;
+
+    @Pattern(regexp = "[0-9a-fA-F]{64}", message = "SHA-256 must be 64 hex characters")
+    @JsonProperty("sha256")
+    @Schema(description = "Hex SHA-256 of the image (optional). When given, S3 rejects an upload with different content, and an image already stored is not uploaded again.", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String sha256;
+}
@@ -0,0 +1,39 @@
+package com.system.brands.Dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Presigned URL for uploading an image straight to S3")
+public class ImageUploadResponseDto {
+
+    @JsonProperty("s3Key")
+    @Schema(description = "Key to pass to the finalize call once the upload succeeded", example = "products/3f9c2a4e-8d1b-4c55-9a57-0b7e3f1d2c6a.png")
+    private String s3Key;
+
+    @JsonProperty("uploadRequired")
+    @Schema(description = "False if S3 already holds identical content; finalize right away without uploading", example = "true")
+    private Boolean uploadRequired;
+
+    @JsonProperty("uploadUrl")
+    @Schema(description = "URL to PUT the image bytes to")
+    private String uploadUrl;
+
+    @JsonProperty("headers")
+    @Schema(description = "Headers the PUT must carry with exactly these values")
+    private Map<String, String> headers;
+
+    @JsonProperty("expiresAt")
+    @Schema(description = "When the upload URL stops working")
+    private Instant expiresAt;
+}
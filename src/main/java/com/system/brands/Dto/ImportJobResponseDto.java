@@ -0,0 +1,59 @@
+package com.system.brands.Dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Progress of a catalog import job")
+public class ImportJobResponseDto {
+
+    @JsonProperty("jobId")
+    @Schema(description = "Import job ID", example = "3f9c2a4e-8d1b-4c55-9a57-0b7e3f1d2c6a")
+    private String jobId;
+
+    @JsonProperty("status")
+    @Schema(description = "RUNNING, COMPLETED or FAILED. A failed job can be resumed.", example = "RUNNING")
+    private String status;
+
+    @JsonProperty("owner")
+    @Schema(description = "Instance that holds the archive; a failed job is resumed there", example = "brands-api-7d9f")
+    private String owner;
+
+    @JsonProperty("totalRows")
+    @Schema(description = "Products in the manifest", example = "10000")
+    private Integer totalRows;
+
+    @JsonProperty("processedRows")
+    @Schema(description = "Manifest rows committed so far, imported or skipped", example = "2500")
+    private Integer processedRows;
+
+    @JsonProperty("importedProducts")
+    @Schema(description = "Products created so far", example = "2498")
+    private Integer importedProducts;
+
+    @JsonProperty("failedRows")
+    @Schema(description = "Rows skipped because they were invalid", example = "2")
+    private Integer failedRows;
+
+    @JsonProperty("errors")
+    @Schema(description = "Reasons for skipped rows and for a failed job (first 100)")
+    private List<String> errors;
+
+    @JsonProperty("startedAt")
+    @Schema(description = "When the job (or its last resume) started")
+    private LocalDateTime startedAt;
+
+    @JsonProperty("finishedAt")
+    @Schema(description = "When the job finished, null while running")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,32 @@
+package com.system.brands.Dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.system.brands.Model.ProductOrderScope;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch product order request data")
+public class ProductBatchOrderRequestDto {
+
+    @NotEmpty(message = "Product IDs are required")
+    @Size(max = 1000, message = "At most 1000 products can be reordered at once")
+    @JsonProperty("productIds")
+    @Schema(description = "Product IDs in their new order. They take over the positions the listed products occupy now, other products keep theirs.", example = "[7, 3, 12]")
+    private List<@NotNull(message = "Product ID is required") Integer> productIds;
+
+    @JsonProperty("scope")
+    @Schema(description = "Ordering to change: all products (default), the product's brand or its category", example = "BRAND")
+    private ProductOrderScope scope;
+}
@@ -0,0 +1,49 @@
+package com.system.brands.Dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One product in an import manifest (products.json entry or products.csv row).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Schema(description = "Product entry of an import manifest")
+public class ProductImportRowDto {
+
+    @JsonProperty("brandId")
+    @Schema(description = "Brand ID", example = "1")
+    private Integer brandId;
+
+    @JsonProperty("categoryId")
+    @Schema(description = "Category ID (optional)", example = "1")
+    private Integer categoryId;
+
+    @JsonProperty("name")
+    @Schema(description = "Product name", example = "Air Max 90")
+    private String name;
+
+    @JsonProperty("packaging")
+    @Schema(description = "Product packaging information (optional)", example = "Box of 12 units")
+    private String packaging;
+
+    @JsonProperty("isNew")
+    @Schema(description = "Whether the product is new (optional)", example = "true")
+    private Boolean isNew;
+
+    @JsonProperty("isHidden")
+    @Schema(description = "Whether the product is hidden (optional)", example = "false")
+    private Boolean isHidden;
+
+    @JsonProperty("image")
+    @Schema(description = "Path of the product image inside the archive (optional)", example = "images/air-max-90.png")
+    private String image;
+}
@@ -1,6 +1,7 @@
 package com.system.brands.Dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.system.brands.Model.ProductOrderScope;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -22,6 +23,10 @@ public class ProductOrderRequestDto {
 
     @NotNull(message = "New order position is required")
     @JsonProperty("newOrder")
-    @Schema(description = "New order position", example = "5")
+    @Schema(description = "New 1-based position within the chosen scope", example = "5")
     private Integer newOrder;
+
+    @JsonProperty("scope")
+    @Schema(description = "Ordering to change: all products (default), the product's brand or its category", example = "BRAND")
+    private ProductOrderScope scope;
 }
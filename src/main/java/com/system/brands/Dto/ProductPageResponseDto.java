@@ -0,0 +1,34 @@
+package com.system.brands.Dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A page of products in product order")
+public class ProductPageResponseDto {
+
+    @JsonProperty("items")
+    @Schema(description = "Products on this page")
+    private List<ProductResponseDto> items;
+
+    @JsonProperty("nextCursor")
+    @Schema(description = "Opaque cursor for the next page, null when this is the last page", example = "MTAyNDo0Mg")
+    private String nextCursor;
+
+    @JsonProperty("size")
+    @Schema(description = "Page size that was applied", example = "50")
+    private Integer size;
+
+    @JsonProperty("hasMore")
+    @Schema(description = "Whether more products follow this page", example = "true")
+    private Boolean hasMore;
+}
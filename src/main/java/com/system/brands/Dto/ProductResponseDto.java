@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -42,10 +44,22 @@ public class ProductResponseDto {
     @Schema(description = "S3 URL to product image", example = "https://brands-bucket-818.s3.us-east-1.amazonaws.com/products/uuid.png")
     private String imageUrl;
 
+    @JsonProperty("imageVariants")
+    @Schema(description = "URLs of resized copies of the product image by size (thumbnail, medium, full); absent until generated", example = "{\"thumbnail\": \"https://brands-bucket-818.s3.us-east-1.amazonaws.com/variants/thumbnail/products/uuid.png\"}")
+    private Map<String, String> imageVariants;
+
     @JsonProperty("productOrder")
-    @Schema(description = "Product order for sorting", example = "1")
+    @Schema(description = "1-based position of the product in product order", example = "1")
     private Integer productOrder;
 
+    @JsonProperty("brandOrder")
+    @Schema(description = "1-based position of the product among the products of its brand", example = "1")
+    private Integer brandOrder;
+
+    @JsonProperty("categoryOrder")
+    @Schema(description = "1-based position of the product among the products of its category", example = "1")
+    private Integer categoryOrder;
+
     @JsonProperty("packaging")
     @Schema(description = "Product packaging information", example = "Box of 12 units")
     private String packaging;
@@ -57,4 +71,8 @@ public class ProductResponseDto {
     @JsonProperty("isHidden")
     @Schema(description = "Whether the product is hidden", example = "false")
     private Boolean isHidden;
+
+    @JsonProperty("version")
+    @Schema(description = "Version to send in If-Match when updating", example = "3")
+    private Long version;
 }
@@ -2,7 +2,9 @@ package com.system.brands.Exception;
 
 import com.system.brands.Dto.ErrorResponseDto;
 import com.system.brands.Dto.ValidationErrorResponseDto;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -53,6 +55,38 @@ public class GlobalExceptionHandler {
                 return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         }
 
+        @ExceptionHandler(PreconditionFailedException.class)
+        public ResponseEntity<ErrorResponseDto> handlePreconditionFailedException(
+                        PreconditionFailedException ex,
+                        HttpServletRequest request) {
+
+                ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                                .status(HttpStatus.PRECONDITION_FAILED.value())
+                                .message("Precondition Failed")
+                                .details(ex.getMessage())
+                                .timestamp(LocalDateTime.now())
+                                .path(request.getRequestURI())
+                                .build();
+
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+        }
+
+        @ExceptionHandler({ OptimisticLockingFailureException.class, OptimisticLockException.class })
+        public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailure(
+                        Exception ex,
+                        HttpServletRequest request) {
+
+                ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                                .status(HttpStatus.CONFLICT.value())
+                                .message("Concurrent Modification")
+                                .details("The resource was changed by another request; reload it and try again")
+                                .timestamp(LocalDateTime.now())
+                                .path(request.getRequestURI())
+                                .build();
+
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+
         @ExceptionHandler(InvalidCredentialsException.class)
         public ResponseEntity<ErrorResponseDto> handleInvalidCredentialsException(
                         InvalidCredentialsException ex,
@@ -148,7 +182,7 @@ public class GlobalExceptionHandler {
                 ErrorResponseDto errorResponse = ErrorResponseDto.builder()
                                 .status(HttpStatus.PAYLOAD_TOO_LARGE.value())
                                 .message("File Too Large")
-                                .details("The uploaded file exceeds the maximum allowed size of 50MB")
+                                .details("The uploaded file exceeds the maximum allowed upload size")
                                 .timestamp(LocalDateTime.now())
                                 .path(request.getRequestURI())
                                 .build();
@@ -0,0 +1,12 @@
+package com.system.brands.Exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public PreconditionFailedException(String resourceName, Object id, Long expectedVersion, Long currentVersion) {
+        super(String.format("%s %s has changed: expected version %d but found %d",
+                resourceName, id, expectedVersion, currentVersion));
+    }
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
@@ -14,10 +15,12 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(schema = "brands_schema", name = "brands")
+@DynamicUpdate
 public class Brand {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "brands_seq")
+    @SequenceGenerator(name = "brands_seq", schema = "brands_schema", sequenceName = "brands_seq", allocationSize = 50)
     private Integer id;
 
     @Column(nullable = false, unique = true)
@@ -29,7 +32,16 @@ public class Brand {
     @Column(name = "image_s3_key", length = 500)
     private String imageS3Key;
 
-    @OneToMany(mappedBy = "brand", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    /** Set once the {@link ImageVariant}s of the current image are stored. */
+    @Column(name = "image_variants_ready")
+    private Boolean imageVariantsReady;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Not cascaded: BrandService deletes a brand's products with one statement
+    @OneToMany(mappedBy = "brand", fetch = FetchType.LAZY)
     private List<Product> products;
 
 }
@@ -0,0 +1,27 @@
+package com.system.brands.Model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of brands and products pointing at an S3 object. With content-addressed
+ * keys several rows share one object, so it may only be deleted once this drops to zero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(schema = "brands_schema", name = "image_refs")
+public class ImageReference {
+
+    @Id
+    @Column(name = "s3_key", length = 500)
+    private String s3Key;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+}
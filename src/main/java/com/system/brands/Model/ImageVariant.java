@@ -0,0 +1,115 @@
+package com.system.brands.Model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resized copy of an uploaded image. A variant is stored under
+ * {@code variants/<label>/<original key>.<format>}, so its key follows from the
+ * original and needs no column of its own. The format follows from the
+ * original's extension as well: types that can carry transparency become PNG,
+ * everything else JPEG.
+ */
+public enum ImageVariant {
+
+    /** List tiles. */
+    THUMBNAIL("thumbnail", 160),
+
+    /** Cards and brand pages. */
+    MEDIUM("medium", 480),
+
+    /** Detail views; a bounded alternative to the untouched original, which stays the image URL. */
+    FULL("full", 1200);
+
+    public static final String KEY_PREFIX = "variants/";
+
+    public static final String PNG = "png";
+
+    public static final String JPEG = "jpg";
+
+    /** Original extensions whose variants are PNG, so transparency survives. */
+    private static final Set<String> PNG_SOURCES = Set.of(".png", ".gif", ".webp");
+
+    private final String label;
+
+    private final int maxSize;
+
+    ImageVariant(String label, int maxSize) {
+        this.label = label;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Name of the variant in responses and in its key.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Longest side in pixels; smaller images are re-encoded but not enlarged.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String keyFor(String originalKey) {
+        return KEY_PREFIX + label + "/" + originalKey + "." + formatOf(originalKey);
+    }
+
+    /**
+     * @return {@link #PNG} or {@link #JPEG}, the format variants of
+     *         {@code originalKey} are encoded in and named after
+     */
+    public static String formatOf(String originalKey) {
+        int dot = originalKey.lastIndexOf('.');
+        String extension = dot >= 0 ? originalKey.substring(dot).toLowerCase(Locale.ROOT) : "";
+        return PNG_SOURCES.contains(extension) ? PNG : JPEG;
+    }
+
+    public static List<String> keysFor(String originalKey) {
+        return Arrays.stream(values()).map(variant -> variant.keyFor(originalKey)).toList();
+    }
+
+    /**
+     * @return The key of the image a variant was made from, or null if
+     *         {@code key} is not a variant key
+     */
+    public static String originalKeyOf(String key) {
+        if (!key.startsWith(KEY_PREFIX)) {
+            return null;
+        }
+        int slash = key.indexOf('/', KEY_PREFIX.length());
+        int dot = key.lastIndexOf('.');
+        if (slash < 0 || dot <= slash) {
+            return null;
+        }
+        String originalKey = key.substring(slash + 1, dot);
+        return key.substring(dot + 1).equals(formatOf(originalKey)) ? originalKey : null;
+    }
+
+    /**
+     * @return The key whose references decide whether {@code key} is still needed:
+     *         the original for a variant, the key itself otherwise
+     */
+    public static String sourceKeyOf(String key) {
+        String originalKey = originalKeyOf(key);
+        return originalKey != null ? originalKey : key;
+    }
+
+    /**
+     * @return Variant URLs by label, smallest first
+     */
+    public static Map<String, String> urlsFor(String originalKey, Function<String, String> urlOf) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : values()) {
+            urls.put(variant.label, urlOf.apply(variant.keyFor(originalKey)));
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,59 @@
+package com.system.brands.Model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a catalog import. Updated in the same transaction as each batch of
+ * inserted products, so a resumed job continues exactly after the last committed batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(schema = "brands_schema", name = "import_jobs")
+public class ImportJob {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    /** Instance that received the archive; only it can run or resume the job. */
+    @Column(length = 255)
+    private String owner;
+
+    @Column(name = "total_rows", nullable = false)
+    private Integer totalRows;
+
+    @Column(name = "processed_rows", nullable = false)
+    private Integer processedRows;
+
+    @Column(name = "imported_products", nullable = false)
+    private Integer importedProducts;
+
+    @Column(name = "failed_rows", nullable = false)
+    private Integer failedRows;
+
+    /** One message per line, capped. */
+    @Column(columnDefinition = "TEXT")
+    private String errors;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,44 @@
+package com.system.brands.Model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for an S3 object that is no longer referenced. Written in the same
+ * transaction that drops the reference, so the object is only deleted once that
+ * change has committed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(schema = "brands_schema", name = "pending_image_deletions")
+public class PendingImageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pending_image_deletions_seq")
+    @SequenceGenerator(name = "pending_image_deletions_seq", schema = "brands_schema",
+            sequenceName = "pending_image_deletions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "s3_key", nullable = false, length = 500)
+    private String s3Key;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
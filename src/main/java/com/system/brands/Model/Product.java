@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Data
 @Builder
@@ -12,10 +13,16 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity
 @Table(schema = "brands_schema", name = "products")
+@DynamicUpdate
 public class Product {
 
+    /** Ids handed out per sequence call; JDBC inserts claim blocks of the same size. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", schema = "brands_schema", sequenceName = "products_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Integer id;
 
     @ManyToOne
@@ -32,9 +39,19 @@ public class Product {
     @Column(name = "image_s3_key", length = 500)
     private String imageS3Key;
 
+    /** Set once the {@link ImageVariant}s of the current image are stored. */
+    @Column(name = "image_variants_ready")
+    private Boolean imageVariantsReady;
+
     @Column(name = "priority")
     private Integer productOrder;
 
+    @Column(name = "brand_priority")
+    private Integer brandOrder;
+
+    @Column(name = "category_priority")
+    private Integer categoryOrder;
+
     @Column(name = "packaging")
     private String packaging;
 
@@ -43,4 +60,8 @@ public class Product {
 
     @Column(name = "is_hidden")
     private Boolean isHidden;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
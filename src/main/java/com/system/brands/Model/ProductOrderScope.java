@@ -0,0 +1,101 @@
+package com.system.brands.Model;
+
+import java.util.Comparator;
+
+/**
+ * An independent ordering of products. Each scope keeps its own sparse sort key
+ * column, so reorders in different scopes never touch the same values.
+ */
+public enum ProductOrderScope {
+
+    /** All products. */
+    ALL("priority", null),
+
+    /** Products of one brand. */
+    BRAND("brand_priority", "brand_id"),
+
+    /** Products of one category. */
+    CATEGORY("category_priority", "category_id");
+
+    /** Distance between sort keys of neighbouring products after a rebalance or append. */
+    public static final int ORDER_GAP = 1024;
+
+    private final String orderColumn;
+
+    private final String scopeColumn;
+
+    private final Comparator<ProductView> viewOrder;
+
+    ProductOrderScope(String orderColumn, String scopeColumn) {
+        this.orderColumn = orderColumn;
+        this.scopeColumn = scopeColumn;
+        this.viewOrder = Comparator.<ProductView, Integer>comparing(this::orderOf,
+                Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(ProductView::getId);
+    }
+
+    /**
+     * Sort key column in brands_schema.products.
+     */
+    public String getOrderColumn() {
+        return orderColumn;
+    }
+
+    /**
+     * Column the scope is partitioned by, null for {@link #ALL}.
+     */
+    public String getScopeColumn() {
+        return scopeColumn;
+    }
+
+    /**
+     * Sort key then id, nulls last - the same order the database queries use.
+     */
+    public Comparator<ProductView> viewOrder() {
+        return viewOrder;
+    }
+
+    public Integer orderOf(ProductView view) {
+        return switch (this) {
+            case ALL -> view.getProductOrder();
+            case BRAND -> view.getBrandOrder();
+            case CATEGORY -> view.getCategoryOrder();
+        };
+    }
+
+    public Integer orderOf(Product product) {
+        return switch (this) {
+            case ALL -> product.getProductOrder();
+            case BRAND -> product.getBrandOrder();
+            case CATEGORY -> product.getCategoryOrder();
+        };
+    }
+
+    public void setOrder(Product product, Integer order) {
+        switch (this) {
+            case ALL -> product.setProductOrder(order);
+            case BRAND -> product.setBrandOrder(order);
+            case CATEGORY -> product.setCategoryOrder(order);
+        }
+    }
+
+    /**
+     * Id of the brand or category the product is ordered within, null for {@link #ALL}
+     * or a product without category.
+     */
+    public Integer scopeIdOf(Product product) {
+        return switch (this) {
+            case ALL -> null;
+            case BRAND -> product.getBrand().getId();
+            case CATEGORY -> product.getCategory() != null ? product.getCategory().getId() : null;
+        };
+    }
+
+    public Integer scopeIdOf(ProductView view) {
+        return switch (this) {
+            case ALL -> null;
+            case BRAND -> view.getBrandId();
+            case CATEGORY -> view.getCategoryId();
+        };
+    }
+}
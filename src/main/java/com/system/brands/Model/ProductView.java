@@ -0,0 +1,47 @@
+package com.system.brands.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only product row joined with its brand and category names.
+ * Not a managed entity - built directly from a JDBC result set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductView {
+
+    private Integer id;
+
+    private Integer brandId;
+
+    private String brandName;
+
+    private Integer categoryId;
+
+    private String categoryName;
+
+    private String name;
+
+    private String imageS3Key;
+
+    private Boolean imageVariantsReady;
+
+    private Integer productOrder;
+
+    private Integer brandOrder;
+
+    private Integer categoryOrder;
+
+    private String packaging;
+
+    private Boolean isNew;
+
+    private Boolean isHidden;
+
+    private Long version;
+}
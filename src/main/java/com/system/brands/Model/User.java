@@ -19,7 +19,8 @@ import java.util.List;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", schema = "brands_schema", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private int id;
 
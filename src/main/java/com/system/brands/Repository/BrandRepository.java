@@ -1,14 +1,32 @@
 package com.system.brands.Repository;
 
 import com.system.brands.Model.Brand;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BrandRepository extends JpaRepository<Brand, Integer> {
     Optional<Brand> findByName(String name);
     boolean existsByName(String name);
-}
 
+    /**
+     * Flags brands whose image still is {@code imageS3Key} as having image variants.
+     */
+    @Modifying
+    @Query("UPDATE Brand b SET b.imageVariantsReady = true WHERE b.imageS3Key = :imageS3Key")
+    int markImageVariantsReady(@Param("imageS3Key") String imageS3Key);
+
+    /**
+     * Image keys of brands whose variants are not stored yet, in key order.
+     */
+    @Query("SELECT DISTINCT b.imageS3Key FROM Brand b WHERE b.imageS3Key IS NOT NULL "
+            + "AND (b.imageVariantsReady IS NULL OR b.imageVariantsReady = false) ORDER BY b.imageS3Key")
+    List<String> findImageKeysWithoutVariants(Pageable pageable);
+}
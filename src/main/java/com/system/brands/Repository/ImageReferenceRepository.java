@@ -0,0 +1,18 @@
+package com.system.brands.Repository;
+
+import com.system.brands.Model.ImageReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImageReferenceRepository extends JpaRepository<ImageReference, String>,
+        ImageReferenceRepositoryCustom {
+
+    @Query("SELECT r.s3Key FROM ImageReference r WHERE r.s3Key IN :keys AND r.refCount > 0")
+    List<String> findReferencedKeys(@Param("keys") Collection<String> keys);
+}
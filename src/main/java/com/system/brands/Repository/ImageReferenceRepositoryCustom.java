@@ -0,0 +1,33 @@
+package com.system.brands.Repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reference counting for S3 objects with set-based JDBC statements.
+ */
+public interface ImageReferenceRepositoryCustom {
+
+    /**
+     * Takes a transaction-scoped advisory lock per key, in key order. Writers
+     * changing references and the deletion worker hold it, so an object cannot
+     * be deleted while a new reference to it commits.
+     */
+    void lockKeys(Collection<String> keys);
+
+    /**
+     * Adds references with one batched upsert.
+     *
+     * @param counts Number of new references by key
+     */
+    void addReferences(Map<String, Integer> counts);
+
+    /**
+     * Drops references and removes counts that reach zero.
+     *
+     * @param counts Number of dropped references by key
+     * @return The keys that are no longer referenced at all
+     */
+    Set<String> removeReferences(Map<String, Integer> counts);
+}
@@ -0,0 +1,64 @@
+package com.system.brands.Repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class ImageReferenceRepositoryImpl implements ImageReferenceRepositoryCustom {
+
+    /** First key of the two-key advisory locks taken per image key. */
+    private static final int KEY_LOCK_SPACE = 0x696d_6700;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void lockKeys(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        // Sorted, so transactions locking overlapping sets cannot deadlock
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lockSpace", KEY_LOCK_SPACE)
+                .addValue("keys", keys);
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(:lockSpace, hashtext(k)) "
+                + "FROM (SELECT DISTINCT k FROM unnest(CAST(ARRAY[:keys] AS TEXT[])) AS k ORDER BY k) AS sorted",
+                params, (ResultSetExtractor<Void>) rs -> null);
+    }
+
+    @Override
+    public void addReferences(Map<String, Integer> counts) {
+        SqlParameterSource[] batch = counts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("key", entry.getKey())
+                        .addValue("count", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO brands_schema.image_refs (s3_key, ref_count) VALUES (:key, :count) "
+                + "ON CONFLICT (s3_key) DO UPDATE SET ref_count = image_refs.ref_count + EXCLUDED.ref_count", batch);
+    }
+
+    @Override
+    public Set<String> removeReferences(Map<String, Integer> counts) {
+        SqlParameterSource[] batch = counts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("key", entry.getKey())
+                        .addValue("count", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("UPDATE brands_schema.image_refs SET ref_count = ref_count - :count "
+                + "WHERE s3_key = :key", batch);
+
+        MapSqlParameterSource keys = new MapSqlParameterSource("keys", counts.keySet());
+        jdbcTemplate.update("DELETE FROM brands_schema.image_refs WHERE s3_key IN (:keys) AND ref_count <= 0", keys);
+        Set<String> unreferenced = new HashSet<>(counts.keySet());
+        unreferenced.removeAll(jdbcTemplate.queryForList(
+                "SELECT s3_key FROM brands_schema.image_refs WHERE s3_key IN (:keys)", keys, String.class));
+        return unreferenced;
+    }
+}
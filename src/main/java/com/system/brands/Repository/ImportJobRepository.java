@@ -0,0 +1,12 @@
+package com.system.brands.Repository;
+
+import com.system.brands.Model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+    List<ImportJob> findByStatusAndOwner(String status, String owner);
+}
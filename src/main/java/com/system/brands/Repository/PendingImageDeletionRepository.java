@@ -0,0 +1,44 @@
+package com.system.brands.Repository;
+
+import com.system.brands.Model.PendingImageDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingImageDeletionRepository extends JpaRepository<PendingImageDeletion, Long> {
+
+    /**
+     * Locks up to {@code limit} due rows, skipping rows another instance is
+     * claiming at the same time.
+     */
+    @Query(value = "SELECT * FROM brands_schema.pending_image_deletions "
+            + "WHERE next_attempt_at <= :now ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PendingImageDeletion> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Returns the keys among {@code keys} that a brand or product still references
+     * or that are already queued for deletion.
+     */
+    @Query(value = "SELECT image_s3_key FROM brands_schema.products WHERE image_s3_key IN (:keys) "
+            + "UNION SELECT image_s3_key FROM brands_schema.brands WHERE image_s3_key IN (:keys) "
+            + "UNION SELECT s3_key FROM brands_schema.pending_image_deletions WHERE s3_key IN (:keys)",
+            nativeQuery = true)
+    List<String> findKnownKeys(@Param("keys") Collection<String> keys);
+
+    @Modifying
+    @Query("UPDATE PendingImageDeletion d SET d.nextAttemptAt = :until WHERE d.id IN :ids")
+    void postpone(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE PendingImageDeletion d SET d.attempts = d.attempts + 1, d.nextAttemptAt = :nextAttemptAt, "
+            + "d.lastError = :lastError WHERE d.id = :id")
+    void recordFailure(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("lastError") String lastError);
+}
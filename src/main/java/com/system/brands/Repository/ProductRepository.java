@@ -1,6 +1,7 @@
 package com.system.brands.Repository;
 
 import com.system.brands.Model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,30 +11,39 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, ProductRepositoryCustom {
     List<Product> findByBrandId(Integer brandId);
 
     List<Product> findByCategoryId(Integer categoryId);
 
-    @Query(value = "SELECT * FROM brands_schema.products ORDER BY priority ASC NULLS LAST, id ASC", nativeQuery = true)
-    List<Product> findAllOrderedByProductOrder();
+    long countByBrandId(Integer brandId);
 
-    @Query(value = "SELECT * FROM brands_schema.products WHERE brand_id = :brandId ORDER BY priority ASC NULLS LAST, id ASC", nativeQuery = true)
-    List<Product> findByBrandIdOrderedByProductOrder(@Param("brandId") Integer brandId);
-
-    @Query(value = "SELECT * FROM brands_schema.products WHERE category_id = :categoryId ORDER BY priority ASC NULLS LAST, id ASC", nativeQuery = true)
-    List<Product> findByCategoryIdOrderedByProductOrder(@Param("categoryId") Integer categoryId);
-
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Product p SET p.productOrder = p.productOrder + 1 WHERE p.productOrder >= :minOrder AND p.productOrder < :maxOrder")
-    void shiftOrdersUp(@Param("minOrder") Integer minOrder, @Param("maxOrder") Integer maxOrder);
+    long countByCategoryId(Integer categoryId);
 
+    /**
+     * Moves every product of one category to another, appending them after the
+     * products already there in the order they had before.
+     */
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Product p SET p.productOrder = p.productOrder - 1 WHERE p.productOrder > :minOrder AND p.productOrder <= :maxOrder")
-    void shiftOrdersDown(@Param("minOrder") Integer minOrder, @Param("maxOrder") Integer maxOrder);
-
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Product p SET p.category.id = :newCategoryId WHERE p.category.id = :oldCategoryId")
+    @Query("UPDATE VERSIONED Product p SET p.category.id = :newCategoryId, "
+            + "p.categoryOrder = p.categoryOrder + (SELECT COALESCE(MAX(q.categoryOrder), 0) FROM Product q "
+            + "WHERE q.category.id = :newCategoryId) "
+            + "WHERE p.category.id = :oldCategoryId")
     void reassignProductsToCategory(@Param("oldCategoryId") Integer oldCategoryId,
             @Param("newCategoryId") Integer newCategoryId);
+
+    /**
+     * Flags products whose image still is {@code imageS3Key} as having image variants.
+     * Leaves the version alone, so it does not conflict with concurrent edits.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.imageVariantsReady = true WHERE p.imageS3Key = :imageS3Key")
+    int markImageVariantsReady(@Param("imageS3Key") String imageS3Key);
+
+    /**
+     * Image keys of products whose variants are not stored yet, in key order.
+     */
+    @Query("SELECT DISTINCT p.imageS3Key FROM Product p WHERE p.imageS3Key IS NOT NULL "
+            + "AND (p.imageVariantsReady IS NULL OR p.imageVariantsReady = false) ORDER BY p.imageS3Key")
+    List<String> findImageKeysWithoutVariants(Pageable pageable);
 }
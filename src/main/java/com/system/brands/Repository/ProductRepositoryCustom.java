@@ -0,0 +1,71 @@
+package com.system.brands.Repository;
+
+import com.system.brands.Model.Product;
+import com.system.brands.Model.ProductOrderScope;
+import com.system.brands.Model.ProductView;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    List<ProductView> findAllViewsOrderedByProductOrder();
+
+    List<ProductView> findViewsByIdsOrderedByProductOrder(Collection<Integer> ids);
+
+    /**
+     * Serializes reorders within one ordering scope until the surrounding
+     * transaction ends. Reorders in other scopes are not blocked.
+     *
+     * @param scope   Ordering scope
+     * @param scopeId Brand or category id, ignored for {@link ProductOrderScope#ALL}
+     */
+    void lockOrderScope(ProductOrderScope scope, Integer scopeId);
+
+    /**
+     * Sort keys of consecutive products in scope order, skipping one product.
+     * Used to find the neighbours of a position a product is moved to.
+     *
+     * @param scope      Ordering scope
+     * @param scopeId    Brand or category id, ignored for {@link ProductOrderScope#ALL}
+     * @param excludedId Product left out of the ordering (the one being moved)
+     * @param offset     Number of products to skip
+     * @param limit      Maximum number of keys returned
+     */
+    List<Integer> findProductOrdersExcluding(ProductOrderScope scope, Integer scopeId, Integer excludedId,
+            int offset, int limit);
+
+    Integer findMaxProductOrder(ProductOrderScope scope, Integer scopeId);
+
+    /**
+     * Renumbers the products of one scope to position * gap, keeping their current
+     * order. Only needed when two neighbours have no room left between their keys.
+     *
+     * @return Number of rows updated
+     */
+    int rebalanceProductOrders(ProductOrderScope scope, Integer scopeId, int gap);
+
+    /**
+     * Sets the scope sort key of every given product in one UPDATE ... FROM (VALUES ...).
+     *
+     * @param scope  Ordering scope whose key is written
+     * @param ids    Product IDs
+     * @param orders Sort key for the product at the same index
+     * @return Number of rows updated
+     */
+    int updateProductOrders(ProductOrderScope scope, List<Integer> ids, List<Integer> orders);
+
+    /**
+     * Inserts new products as one JDBC batch, bypassing the persistence context.
+     * Only the ids of brand and category are read; sort keys must already be set.
+     * Ids are drawn from the products sequence and written back to the entities.
+     */
+    void insertProducts(List<Product> products);
+
+    /**
+     * Deletes every product of a brand with one DELETE, bypassing the persistence context.
+     *
+     * @return Image keys of the deleted products that had an image
+     */
+    List<String> deleteProductsByBrandId(Integer brandId);
+}
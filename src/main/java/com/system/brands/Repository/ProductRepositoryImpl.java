@@ -0,0 +1,186 @@
+package com.system.brands.Repository;
+
+import com.system.brands.Model.Product;
+import com.system.brands.Model.ProductOrderScope;
+import com.system.brands.Model.ProductView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * JDBC read path for products. Each query joins brand and category names in a
+ * single round trip and maps rows straight to {@link ProductView}, bypassing the
+ * persistence context.
+ */
+@RequiredArgsConstructor
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String SELECT_VIEW = "SELECT p.id, p.brand_id, b.name AS brand_name, "
+            + "p.category_id, c.name AS category_name, p.name, p.image_s3_key, p.image_variants_ready, p.priority, "
+            + "p.brand_priority, p.category_priority, "
+            + "p.packaging, p.is_new, p.is_hidden, p.version "
+            + "FROM brands_schema.products p "
+            + "JOIN brands_schema.brands b ON b.id = p.brand_id "
+            + "LEFT JOIN brands_schema.categories c ON c.id = p.category_id";
+
+    private static final String ORDER_BY = orderBy(ProductOrderScope.ALL);
+
+    /** First key of the two-key advisory locks taken per ordering scope. */
+    private static final int ORDER_LOCK_SPACE = 0x6f72_6400;
+
+    private static final String INSERT_PRODUCT = "INSERT INTO brands_schema.products "
+            + "(id, brand_id, category_id, name, image_s3_key, priority, brand_priority, category_priority, "
+            + "packaging, is_new, is_hidden, version) "
+            + "VALUES (:id, :brandId, :categoryId, :name, :imageS3Key, :priority, :brandPriority, :categoryPriority, "
+            + ":packaging, :isNew, :isHidden, 0)";
+
+    private static final RowMapper<ProductView> VIEW_ROW_MAPPER = (rs, rowNum) -> ProductView.builder()
+            .id(rs.getInt("id"))
+            .brandId(rs.getInt("brand_id"))
+            .brandName(rs.getString("brand_name"))
+            .categoryId(rs.getObject("category_id", Integer.class))
+            .categoryName(rs.getString("category_name"))
+            .name(rs.getString("name"))
+            .imageS3Key(rs.getString("image_s3_key"))
+            .imageVariantsReady(rs.getBoolean("image_variants_ready"))
+            .productOrder(rs.getObject("priority", Integer.class))
+            .brandOrder(rs.getObject("brand_priority", Integer.class))
+            .categoryOrder(rs.getObject("category_priority", Integer.class))
+            .packaging(rs.getString("packaging"))
+            .isNew(rs.getObject("is_new", Boolean.class))
+            .isHidden(rs.getObject("is_hidden", Boolean.class))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ProductView> findAllViewsOrderedByProductOrder() {
+        return jdbcTemplate.query(SELECT_VIEW + ORDER_BY, VIEW_ROW_MAPPER);
+    }
+
+    @Override
+    public List<ProductView> findViewsByIdsOrderedByProductOrder(Collection<Integer> ids) {
+        return jdbcTemplate.query(SELECT_VIEW + " WHERE p.id IN (:ids)" + ORDER_BY,
+                new MapSqlParameterSource("ids", ids), VIEW_ROW_MAPPER);
+    }
+
+    @Override
+    public void lockOrderScope(ProductOrderScope scope, Integer scopeId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lockSpace", ORDER_LOCK_SPACE + scope.ordinal())
+                .addValue("scopeId", scopeId != null ? scopeId : 0);
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(:lockSpace, :scopeId)", params,
+                (ResultSetExtractor<Void>) rs -> null);
+    }
+
+    @Override
+    public List<Integer> findProductOrdersExcluding(ProductOrderScope scope, Integer scopeId, Integer excludedId,
+            int offset, int limit) {
+        MapSqlParameterSource params = scopeParams(scopeId)
+                .addValue("excludedId", excludedId)
+                .addValue("offset", offset)
+                .addValue("limit", limit);
+        return jdbcTemplate.query("SELECT p." + scope.getOrderColumn() + " AS sort_key "
+                + "FROM brands_schema.products p WHERE p.id <> :excludedId" + scopeFilter(scope)
+                + orderBy(scope) + " OFFSET :offset LIMIT :limit", params,
+                (rs, rowNum) -> rs.getObject("sort_key", Integer.class));
+    }
+
+    @Override
+    public Integer findMaxProductOrder(ProductOrderScope scope, Integer scopeId) {
+        return jdbcTemplate.queryForObject("SELECT MAX(p." + scope.getOrderColumn() + ") "
+                + "FROM brands_schema.products p WHERE TRUE" + scopeFilter(scope),
+                scopeParams(scopeId), Integer.class);
+    }
+
+    @Override
+    public int rebalanceProductOrders(ProductOrderScope scope, Integer scopeId, int gap) {
+        MapSqlParameterSource params = scopeParams(scopeId).addValue("gap", gap);
+        return jdbcTemplate.update("UPDATE brands_schema.products t SET " + scope.getOrderColumn()
+                + " = r.position * :gap "
+                + "FROM (SELECT p.id, ROW_NUMBER() OVER (" + orderBy(scope) + ") AS position "
+                + "FROM brands_schema.products p WHERE TRUE" + scopeFilter(scope) + ") r "
+                + "WHERE t.id = r.id", params);
+    }
+
+    @Override
+    public int updateProductOrders(ProductOrderScope scope, List<Integer> ids, List<Integer> orders) {
+        StringBuilder values = new StringBuilder();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (int i = 0; i < ids.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :order").append(i).append(")");
+            params.addValue("id" + i, ids.get(i));
+            params.addValue("order" + i, orders.get(i));
+        }
+        return jdbcTemplate.update("UPDATE brands_schema.products p SET " + scope.getOrderColumn()
+                + " = v.sort_key FROM (VALUES " + values + ") AS v(id, sort_key) "
+                + "WHERE p.id = v.id", params);
+    }
+
+    @Override
+    public void insertProducts(List<Product> products) {
+        assignIds(products);
+        SqlParameterSource[] batch = products.stream()
+                .map(product -> new MapSqlParameterSource()
+                        .addValue("id", product.getId())
+                        .addValue("brandId", product.getBrand().getId())
+                        .addValue("categoryId", product.getCategory() != null ? product.getCategory().getId() : null,
+                                Types.INTEGER)
+                        .addValue("name", product.getName())
+                        .addValue("imageS3Key", product.getImageS3Key(), Types.VARCHAR)
+                        .addValue("priority", product.getProductOrder())
+                        .addValue("brandPriority", product.getBrandOrder())
+                        .addValue("categoryPriority", product.getCategoryOrder(), Types.INTEGER)
+                        .addValue("packaging", product.getPackaging(), Types.VARCHAR)
+                        .addValue("isNew", product.getIsNew(), Types.BOOLEAN)
+                        .addValue("isHidden", product.getIsHidden(), Types.BOOLEAN))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, batch);
+    }
+
+    @Override
+    public List<String> deleteProductsByBrandId(Integer brandId) {
+        return jdbcTemplate.queryForList("DELETE FROM brands_schema.products WHERE brand_id = :brandId "
+                + "RETURNING image_s3_key", new MapSqlParameterSource("brandId", brandId), String.class)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Claims ids the way Hibernate's pooled optimizer does: each {@code nextval}
+     * returns the upper end of a block of {@link Product#ID_ALLOCATION_SIZE} ids,
+     * so JDBC and JPA inserts never hand out the same id.
+     */
+    private void assignIds(List<Product> products) {
+        int blocks = (products.size() + Product.ID_ALLOCATION_SIZE - 1) / Product.ID_ALLOCATION_SIZE;
+        List<Integer> upperBounds = jdbcTemplate.queryForList(
+                "SELECT CAST(nextval('brands_schema.products_seq') AS INTEGER) FROM generate_series(1, :blocks)",
+                new MapSqlParameterSource("blocks", blocks), Integer.class);
+        for (int i = 0; i < products.size(); i++) {
+            int upperBound = upperBounds.get(i / Product.ID_ALLOCATION_SIZE);
+            products.get(i).setId(upperBound - Product.ID_ALLOCATION_SIZE + 1 + i % Product.ID_ALLOCATION_SIZE);
+        }
+    }
+
+    private static String orderBy(ProductOrderScope scope) {
+        return " ORDER BY p." + scope.getOrderColumn() + " ASC NULLS LAST, p.id ASC";
+    }
+
+    private static String scopeFilter(ProductOrderScope scope) {
+        return scope.getScopeColumn() != null ? " AND p." + scope.getScopeColumn() + " = :scopeId" : "";
+    }
+
+    private static MapSqlParameterSource scopeParams(Integer scopeId) {
+        return new MapSqlParameterSource("scopeId", scopeId);
+    }
+}
@@ -0,0 +1,78 @@
+package com.system.brands.Security;
+
+import com.system.brands.Model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal of a request authenticated by token. An immutable copy of the
+ * {@link User} row without the password hash, so one instance can be shared by
+ * every request of that user.
+ */
+public final class AuthenticatedUser implements UserDetails {
+
+    private final int id;
+    private final String username;
+    private final String name;
+    private final List<GrantedAuthority> authorities;
+
+    private AuthenticatedUser(int id, String username, String name, Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.name = name;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getName(), user.getAuthorities());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Always null: token requests never check a password
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
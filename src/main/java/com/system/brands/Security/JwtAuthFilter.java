@@ -1,8 +1,9 @@
 package com.system.brands.Security;
 
 import com.system.brands.Service.UserManagement.JwtService;
+import com.system.brands.Service.UserManagement.UserDetailsCache;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,7 +13,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -25,7 +25,7 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     protected void doFilterInternal(
@@ -43,7 +43,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 requestPath.startsWith("/actuator/") ||
                 requestPath.equals("/error") ||
                 (method.equals("GET")
-                        && (requestPath.startsWith("/api/brands/") || requestPath.startsWith("/api/products/")))) {
+                        && (requestPath.startsWith("/api/brands/") || requestPath.startsWith("/api/products/"))
+                        // Import job progress is not public
+                        && !requestPath.startsWith("/api/products/import/"))) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -56,31 +58,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             // extract token from header
             token = requestHeader.substring(7);
             try {
-                // save username
-                username = jwtService.extractUsername(token);
+                // verify signature and expiry once, and save username
+                username = jwtService.verifyToken(token);
 
             } catch (IllegalArgumentException e) {
                 logger.info("Illegal Argument while fetching the username !!");
             } catch (ExpiredJwtException e) {
                 logger.info("Given jwt token is expired !!");
-            } catch (MalformedJwtException e) {
+            } catch (JwtException e) {
                 logger.info("Some changed has done in token !! Invalid Token");
             }
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            Boolean validToken = this.jwtService.isTokenValid(token, userDetails);
+            // cached, so a known user costs no database round trip
+            UserDetails userDetails = this.userDetailsCache.loadUserByUsername(username);
 
-            if (validToken) {
-                // set the authentication
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null,
-                        userDetails.getAuthorities());
-                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(auth);
-            } else {
-                logger.info("Validation failed ");
-            }
+            // set the authentication; the token was verified above
+            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null,
+                    userDetails.getAuthorities());
+            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(auth);
         }
         filterChain.doFilter(request, response);
     }
@@ -46,9 +46,14 @@ public class SecurityConfiguration {
                                                 .requestMatchers("/error").permitAll()
                                                 // Allow GET requests to brands, products, and categories without
                                                 // authentication
+                                                // Import job progress is admin information
+                                                .requestMatchers("GET", "/api/products/import/**").authenticated()
                                                 .requestMatchers("GET", "/api/brands/**").permitAll()
                                                 .requestMatchers("GET", "/api/products/**").permitAll()
                                                 .requestMatchers("GET", "/api/categories/**").permitAll()
+                                                // Images, cached or kept by the local storage backend; neither
+                                                // endpoint exists with presigned URLs
+                                                .requestMatchers("GET", "/images/**", "/files/**").permitAll()
                                                 // any other url need to be authenticated
                                                 .anyRequest().authenticated())
                                 .sessionManagement(session -> session
@@ -65,6 +70,7 @@ public class SecurityConfiguration {
                 configuration.setAllowedOrigins(List.of("*")); // Allow all origins for development
                 configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
                 configuration.setAllowedHeaders(List.of("*"));
+                configuration.setExposedHeaders(List.of("ETag"));
                 configuration.setAllowCredentials(false); // Must be false when allowing all origins
 
                 UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
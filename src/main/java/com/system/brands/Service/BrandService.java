@@ -2,23 +2,30 @@ package com.system.brands.Service;
 
 import com.system.brands.Dto.BrandRequestDto;
 import com.system.brands.Dto.BrandResponseDto;
-import com.system.brands.Dto.ProductResponseDto;
+import com.system.brands.Dto.ImageUploadRequestDto;
+import com.system.brands.Dto.ImageUploadResponseDto;
 import com.system.brands.Exception.BadRequestException;
 import com.system.brands.Exception.DuplicateResourceException;
+import com.system.brands.Exception.PreconditionFailedException;
 import com.system.brands.Exception.ResourceNotFoundException;
 import com.system.brands.Model.Brand;
+import com.system.brands.Model.ImageVariant;
 import com.system.brands.Repository.BrandRepository;
+import com.system.brands.Repository.ProductRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @Slf4j
 @Service
@@ -26,23 +33,24 @@ import java.util.stream.Collectors;
 public class BrandService {
 
     private final BrandRepository brandRepository;
-    private final S3StorageService s3StorageService;
+    private final ProductRepository productRepository;
+    private final StorageService storageService;
+    private final ImageUrlService imageUrlService;
+    private final ImageReferenceService imageReferenceService;
+    private final ImageVariantService imageVariantService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final TransactionTemplate transactionTemplate;
 
     @PersistenceContext
     private EntityManager entityManager;
 
-    @Transactional(readOnly = true)
     public List<BrandResponseDto> getAllBrands() {
-        return brandRepository.findAll().stream()
-                .map(brand -> convertToBrandResponseDto(brand, false))
-                .collect(Collectors.toList());
+        return catalogSnapshotService.current().getBrands();
     }
 
-    @Transactional(readOnly = true)
     public BrandResponseDto getBrandById(Integer id) {
-        Brand brand = brandRepository.findById(id)
+        return catalogSnapshotService.current().getBrand(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Brand", "id", id));
-        return convertToBrandResponseDto(brand, true);
     }
 
     @Transactional(readOnly = true)
@@ -51,7 +59,10 @@ public class BrandService {
                 .orElseThrow(() -> new ResourceNotFoundException("Brand", "id", id));
     }
 
-    @Transactional
+    /**
+     * Uploads the image before the transaction opens, so no database connection
+     * waits on S3. The upload is removed again if the insert fails.
+     */
     public BrandResponseDto createBrand(BrandRequestDto requestDto, MultipartFile image) throws IOException {
         if (requestDto == null || requestDto.getName() == null || requestDto.getName().trim().isEmpty()) {
             throw new BadRequestException("Brand name is required");
@@ -62,11 +73,22 @@ public class BrandService {
             throw new DuplicateResourceException("Brand", "name", brandName);
         }
 
-        // Upload image to S3
-        String imageS3Key = null;
-        if (image != null && !image.isEmpty()) {
-            imageS3Key = s3StorageService.uploadFile(image, "brands");
-            log.info("Brand image uploaded to S3: key={}", imageS3Key);
+        String imageS3Key = uploadImage(image);
+        BrandResponseDto response;
+        try {
+            response = transactionTemplate.execute(status -> insertBrand(brandName, requestDto, imageS3Key));
+        } catch (RuntimeException e) {
+            discardUpload(imageS3Key);
+            throw e;
+        }
+        imageVariantService.generateVariants(imageS3Key);
+        return response;
+    }
+
+    private BrandResponseDto insertBrand(String brandName, BrandRequestDto requestDto, String imageS3Key) {
+        // Checked again now that the upload is done; another request may have taken the name
+        if (brandRepository.existsByName(brandName)) {
+            throw new DuplicateResourceException("Brand", "name", brandName);
         }
 
         Brand brand = Brand.builder()
@@ -77,6 +99,7 @@ public class BrandService {
 
         log.debug("Creating brand with name: {}", brandName);
         Brand savedBrand = brandRepository.save(brand);
+        imageReferenceService.acquire(imageS3Key);
 
         entityManager.flush();
         entityManager.refresh(savedBrand);
@@ -92,17 +115,101 @@ public class BrandService {
                         "Brand was saved but cannot be retrieved from database. ID: " + savedBrand.getId()));
 
         log.info("Brand verified in database - ID: {}, Name: {}", verifiedBrand.getId(), verifiedBrand.getName());
+        catalogSnapshotService.refreshAfterCommit();
 
-        BrandResponseDto response = convertToBrandResponseDto(verifiedBrand, false);
+        BrandResponseDto response = convertToBrandResponseDto(verifiedBrand);
         log.debug("Returning brand response with ID: {}", response.getId());
         return response;
     }
 
-    @Transactional
-    public BrandResponseDto updateBrand(Integer id, BrandRequestDto requestDto, MultipartFile image)
-            throws IOException {
+    /**
+     * @param expectedVersion Version the client based its edit on (from If-Match), or
+     *                        null to skip the check
+     */
+    public BrandResponseDto updateBrand(Integer id, BrandRequestDto requestDto, MultipartFile image,
+            Long expectedVersion) throws IOException {
+        if (!brandRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Brand", "id", id);
+        }
+
+        String imageS3Key = uploadImage(image);
+        BrandResponseDto response;
+        try {
+            response = transactionTemplate.execute(status -> applyBrandUpdate(id, requestDto, imageS3Key,
+                    expectedVersion));
+        } catch (RuntimeException e) {
+            discardUpload(imageS3Key);
+            throw e;
+        }
+        imageVariantService.generateVariants(imageS3Key);
+        return response;
+    }
+
+    /**
+     * Replaces a brand's image with content streamed from the request body. The
+     * upload runs before the transaction opens, as in {@link #updateBrand}.
+     *
+     * @param contentLength Body length in bytes, or -1 if unknown
+     */
+    public BrandResponseDto replaceBrandImage(Integer id, InputStream content, long contentLength,
+            String contentType, Long expectedVersion) throws IOException {
+        if (!brandRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Brand", "id", id);
+        }
+
+        String imageS3Key = storageService.uploadStream(content, contentLength, null, contentType, "brands");
+        log.info("Brand image streamed to S3: key={}", imageS3Key);
+        BrandResponseDto response;
+        try {
+            response = transactionTemplate.execute(status -> applyBrandUpdate(id, null, imageS3Key, expectedVersion));
+        } catch (RuntimeException e) {
+            discardUpload(imageS3Key);
+            throw e;
+        }
+        imageVariantService.generateVariants(imageS3Key);
+        return response;
+    }
+
+    /**
+     * Issues a presigned URL the client uploads a new brand image to; the image
+     * replaces the current one once {@link #attachBrandImage} is called.
+     */
+    public ImageUploadResponseDto presignBrandImageUpload(Integer id, ImageUploadRequestDto requestDto) {
+        if (!brandRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Brand", "id", id);
+        }
+
+        return storageService.presignUpload("brands", requestDto.getContentType(),
+                requestDto.getContentLength(), requestDto.getSha256());
+    }
+
+    /**
+     * Makes an image uploaded through a presigned URL the brand's image. If this
+     * fails the object stays unreferenced, and the client may retry; otherwise the
+     * orphan collector removes it.
+     */
+    public BrandResponseDto attachBrandImage(Integer id, String imageS3Key, Long expectedVersion) {
+        if (!brandRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Brand", "id", id);
+        }
+        if (!storageService.isUploadedImage("brands", imageS3Key)) {
+            throw new BadRequestException("No uploaded brand image found for key: " + imageS3Key);
+        }
+
+        BrandResponseDto response = transactionTemplate.execute(
+                status -> applyBrandUpdate(id, null, imageS3Key, expectedVersion));
+        log.info("Attached directly uploaded image to brand {}: key={}", id, imageS3Key);
+        imageVariantService.generateVariants(imageS3Key);
+        return response;
+    }
+
+    private BrandResponseDto applyBrandUpdate(Integer id, BrandRequestDto requestDto, String imageS3Key,
+            Long expectedVersion) {
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Brand", "id", id));
+        if (expectedVersion != null && !expectedVersion.equals(brand.getVersion())) {
+            throw new PreconditionFailedException("Brand", id, expectedVersion, brand.getVersion());
+        }
 
         // Only update name if provided
         if (requestDto != null && requestDto.getName() != null && !requestDto.getName().trim().isEmpty()) {
@@ -121,16 +228,13 @@ public class BrandService {
         }
 
         // Handle image update
-        if (image != null && !image.isEmpty()) {
-            // Delete old image from S3 if exists
-            if (brand.getImageS3Key() != null) {
-                s3StorageService.deleteFile(brand.getImageS3Key());
-                log.info("Old brand image deleted from S3: key={}", brand.getImageS3Key());
-            }
-            // Upload new image to S3
-            String imageS3Key = s3StorageService.uploadFile(image, "brands");
+        if (imageS3Key != null) {
+            // Acquire before releasing, so re-uploading identical content never
+            // lets the shared object's count touch zero
+            imageReferenceService.acquire(imageS3Key);
+            imageReferenceService.release(brand.getImageS3Key());
             brand.setImageS3Key(imageS3Key);
-            log.info("New brand image uploaded to S3: key={}", imageS3Key);
+            brand.setImageVariantsReady(false);
         }
 
         log.debug("Updating brand with ID: {}", id);
@@ -140,28 +244,52 @@ public class BrandService {
         entityManager.refresh(updatedBrand);
 
         log.debug("Brand updated successfully with ID: {}", updatedBrand.getId());
+        catalogSnapshotService.refreshAfterCommit();
 
         if (updatedBrand == null || updatedBrand.getId() == null) {
             throw new RuntimeException("Failed to update brand in database");
         }
 
-        BrandResponseDto response = convertToBrandResponseDto(updatedBrand, false);
+        BrandResponseDto response = convertToBrandResponseDto(updatedBrand);
         log.debug("Returning updated brand response with ID: {}", response.getId());
         return response;
     }
 
+    private String uploadImage(MultipartFile image) throws IOException {
+        if (image == null || image.isEmpty()) {
+            return null;
+        }
+        String imageS3Key = storageService.uploadFile(image, "brands");
+        log.info("Brand image uploaded to S3: key={}", imageS3Key);
+        return imageS3Key;
+    }
+
+    private void discardUpload(String imageS3Key) {
+        if (imageS3Key != null) {
+            imageReferenceService.discard(imageS3Key);
+            log.info("Discarding brand image after failed write: key={}", imageS3Key);
+        }
+    }
+
+    /**
+     * Deletes a brand and all of its products. The products go in one set-based
+     * DELETE that returns their image keys, so nothing is loaded into the
+     * persistence context; the brand and product images are queued for S3
+     * deletion in the same transaction.
+     */
     @Transactional
     public void deleteBrand(Integer id) {
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Brand", "id", id));
 
-        // Delete associated image from S3
-        if (brand.getImageS3Key() != null) {
-            s3StorageService.deleteFile(brand.getImageS3Key());
-            log.info("Brand image deleted from S3: key={}", brand.getImageS3Key());
-        }
+        List<String> imageKeys = new ArrayList<>(productRepository.deleteProductsByBrandId(id));
+        imageKeys.add(brand.getImageS3Key());
+        log.info("Deleting brand {} with its products, {} image reference(s) released", id,
+                imageKeys.stream().filter(Objects::nonNull).count());
+        imageReferenceService.releaseAll(imageKeys);
 
         brandRepository.delete(brand);
+        catalogSnapshotService.refreshAfterCommit();
     }
 
     @Transactional
@@ -169,18 +297,19 @@ public class BrandService {
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Brand", "id", id));
 
-        // Delete image from S3 if exists
+        // Delete image from S3 if exists, after the reference is dropped
         if (brand.getImageS3Key() != null) {
-            s3StorageService.deleteFile(brand.getImageS3Key());
-            log.info("Brand image deleted from S3: key={}", brand.getImageS3Key());
+            imageReferenceService.release(brand.getImageS3Key());
             brand.setImageS3Key(null);
-            brand = brandRepository.save(brand);
+            brand.setImageVariantsReady(false);
+            brand = brandRepository.saveAndFlush(brand);
+            catalogSnapshotService.refreshAfterCommit();
         }
 
-        return convertToBrandResponseDto(brand, false);
+        return convertToBrandResponseDto(brand);
     }
 
-    private BrandResponseDto convertToBrandResponseDto(Brand brand, boolean includeProducts) {
+    private BrandResponseDto convertToBrandResponseDto(Brand brand) {
         if (brand == null) {
             throw new IllegalArgumentException("Brand cannot be null");
         }
@@ -188,46 +317,16 @@ public class BrandService {
         BrandResponseDto.BrandResponseDtoBuilder builder = BrandResponseDto.builder()
                 .id(brand.getId())
                 .name(brand.getName())
-                .nameEnglish(brand.getNameEnglish());
-
-        if (includeProducts && brand.getProducts() != null && !brand.getProducts().isEmpty()) {
-            List<ProductResponseDto> products = brand.getProducts().stream()
-                    .map(product -> {
-                        ProductResponseDto.ProductResponseDtoBuilder productBuilder = ProductResponseDto.builder()
-                                .id(product.getId())
-                                .brandId(brand.getId())
-                                .brandName(brand.getName())
-                                .name(product.getName());
-
-                        if (product.getCategory() != null) {
-                            productBuilder.categoryId(product.getCategory().getId())
-                                    .categoryName(product.getCategory().getName());
-                        }
-
-                        if (product.getProductOrder() != null) {
-                            productBuilder.productOrder(product.getProductOrder());
-                        }
-
-                        if (product.getPackaging() != null) {
-                            productBuilder.packaging(product.getPackaging());
-                        }
-
-                        // Get image URL from S3
-                        if (product.getImageS3Key() != null) {
-                            String imageUrl = s3StorageService.getFileUrl(product.getImageS3Key());
-                            productBuilder.imageUrl(imageUrl);
-                        }
-
-                        return productBuilder.build();
-                    })
-                    .collect(Collectors.toList());
-            builder.products(products);
-        }
+                .nameEnglish(brand.getNameEnglish())
+                .version(brand.getVersion());
 
         // Get image URL from S3
         if (brand.getImageS3Key() != null) {
-            String imageUrl = s3StorageService.getFileUrl(brand.getImageS3Key());
+            String imageUrl = imageUrlService.getImageUrl(brand.getImageS3Key());
             builder.imageUrl(imageUrl);
+            if (Boolean.TRUE.equals(brand.getImageVariantsReady())) {
+                builder.imageVariants(ImageVariant.urlsFor(brand.getImageS3Key(), imageUrlService::getImageUrl));
+            }
         }
 
         return builder.build();
@@ -0,0 +1,754 @@
+package com.system.brands.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.system.brands.Dto.ImportJobResponseDto;
+import com.system.brands.Dto.ProductImportRowDto;
+import com.system.brands.Exception.BadRequestException;
+import com.system.brands.Exception.ResourceNotFoundException;
+import com.system.brands.Model.Brand;
+import com.system.brands.Model.Category;
+import com.system.brands.Model.ImportJob;
+import com.system.brands.Model.Product;
+import com.system.brands.Model.ProductOrderScope;
+import com.system.brands.Repository.BrandRepository;
+import com.system.brands.Repository.CategoryRepository;
+import com.system.brands.Repository.ImportJobRepository;
+import com.system.brands.Repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static com.system.brands.Model.ProductOrderScope.ORDER_GAP;
+
+/**
+ * Imports products in bulk from a ZIP archive holding a manifest (products.json
+ * or products.csv at the root) and the images it refers to. Runs in the
+ * background: images of a batch are uploaded in parallel with bounded
+ * concurrency, then the batch is inserted with one JDBC batch together with the
+ * job's progress. A failed job resumes after its last committed batch.
+ * <p>
+ * The archive stays in this instance's work directory, so every job records the
+ * instance that received it, and only that instance runs, fails or resumes it.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    private static final String MANIFEST_JSON = "products.json";
+    private static final String MANIFEST_CSV = "products.csv";
+    private static final int MAX_ERRORS = 100;
+    private static final long MAX_IMAGE_SIZE = 50 * 1024 * 1024; // 50MB, same as single uploads
+
+    private static final Map<String, String> IMAGE_CONTENT_TYPES = Map.of(
+            ".jpg", "image/jpeg",
+            ".jpeg", "image/jpeg",
+            ".png", "image/png",
+            ".gif", "image/gif",
+            ".webp", "image/webp",
+            ".bmp", "image/bmp");
+
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final CategoryRepository categoryRepository;
+    private final ImportJobRepository importJobRepository;
+    private final StorageService storageService;
+    private final ImageReferenceService imageReferenceService;
+    private final ImageVariantService imageVariantService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate batchTransaction;
+    private final Path workDir;
+    private final String instanceId;
+    private final int batchSize;
+    private final long maxArchiveSize;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService uploadExecutor;
+
+    /** Jobs running on this instance; a job not listed here can be resumed. */
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public CatalogImportService(ProductRepository productRepository,
+            BrandRepository brandRepository,
+            CategoryRepository categoryRepository,
+            ImportJobRepository importJobRepository,
+            StorageService storageService,
+            ImageReferenceService imageReferenceService,
+            ImageVariantService imageVariantService,
+            CatalogSnapshotService catalogSnapshotService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.import.work-dir:${java.io.tmpdir}/brands-import}") String workDir,
+            @Value("${catalog.import.instance-id:}") String instanceId,
+            @Value("${catalog.import.batch-size:500}") int batchSize,
+            @Value("${catalog.import.max-archive-size-mb:1024}") long maxArchiveSizeMb,
+            @Value("${catalog.import.upload-concurrency:8}") int uploadConcurrency,
+            @Value("${catalog.import.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.productRepository = productRepository;
+        this.brandRepository = brandRepository;
+        this.categoryRepository = categoryRepository;
+        this.importJobRepository = importJobRepository;
+        this.storageService = storageService;
+        this.imageReferenceService = imageReferenceService;
+        this.imageVariantService = imageVariantService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.objectMapper = objectMapper;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.workDir = Paths.get(workDir);
+        this.instanceId = instanceId.isBlank() ? localHostName() : instanceId;
+        this.batchSize = batchSize;
+        this.maxArchiveSize = maxArchiveSizeMb * 1024 * 1024;
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, namedThreads("catalog-import-"));
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadConcurrency, namedThreads("catalog-import-upload-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs keep their committed progress and can be resumed after restart
+        jobExecutor.shutdownNow();
+        uploadExecutor.shutdownNow();
+    }
+
+    /**
+     * Jobs only run while listed in {@code activeJobs}, so a job of this instance
+     * still RUNNING at startup was cut off by a restart. It is marked failed so it
+     * can be resumed. Jobs of other instances may still be running and are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        try {
+            for (ImportJob job : importJobRepository.findByStatusAndOwner(ImportJob.STATUS_RUNNING, instanceId)) {
+                job.setStatus(ImportJob.STATUS_FAILED);
+                job.setFinishedAt(LocalDateTime.now());
+                job.setErrors(appendErrors(job.getErrors(), List.of("Job interrupted by a restart")));
+                importJobRepository.save(job);
+                log.warn("Import job {} was interrupted at row {} of {}; resume it to continue", job.getId(),
+                        job.getProcessedRows(), job.getTotalRows());
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not mark interrupted import jobs as failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stores the archive, validates its manifest and starts importing in the background.
+     */
+    public ImportJobResponseDto startImport(MultipartFile archive) throws IOException {
+        if (archive == null || archive.isEmpty()) {
+            throw new BadRequestException("Import archive is required");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        Files.createDirectories(workDir);
+        Path archivePath = archivePath(jobId);
+        archive.transferTo(archivePath);
+        return createJob(jobId, archivePath);
+    }
+
+    /**
+     * Same as {@link #startImport(MultipartFile)} for an archive sent as the raw
+     * request body. It is streamed to the work directory, so archives larger than
+     * the multipart limit never pass through the multipart resolver.
+     */
+    public ImportJobResponseDto startImport(InputStream archive) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Files.createDirectories(workDir);
+        Path archivePath = archivePath(jobId);
+        long size;
+        try {
+            size = copyArchive(archive, archivePath);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(archivePath);
+            throw e;
+        }
+        if (size == 0) {
+            Files.deleteIfExists(archivePath);
+            throw new BadRequestException("Import archive is required");
+        }
+        return createJob(jobId, archivePath);
+    }
+
+    private ImportJobResponseDto createJob(String jobId, Path archivePath) throws IOException {
+        int totalRows;
+        try (ZipFile zip = new ZipFile(archivePath.toFile())) {
+            totalRows = readManifest(zip).size();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(archivePath);
+            if (e instanceof BadRequestException badRequest) {
+                throw badRequest;
+            }
+            throw new BadRequestException("Import archive is not a readable ZIP file");
+        }
+
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .id(jobId)
+                .status(ImportJob.STATUS_RUNNING)
+                .owner(instanceId)
+                .totalRows(totalRows)
+                .processedRows(0)
+                .importedProducts(0)
+                .failedRows(0)
+                .startedAt(LocalDateTime.now())
+                .build());
+        log.info("Import job {} created: {} products", jobId, totalRows);
+
+        submit(job, archivePath);
+        return convertToImportJobResponseDto(job);
+    }
+
+    /**
+     * Continues a failed or interrupted job after its last committed batch, on the
+     * instance that holds its archive.
+     */
+    public ImportJobResponseDto resumeImport(String jobId) {
+        ImportJob job = findJob(jobId);
+        if (job.getOwner() != null && !job.getOwner().equals(instanceId)) {
+            throw new BadRequestException("Import job " + jobId + " belongs to instance " + job.getOwner()
+                    + ", which holds its archive; resume it there");
+        }
+        if (activeJobs.contains(jobId)) {
+            throw new BadRequestException("Import job " + jobId + " is still running");
+        }
+        if (ImportJob.STATUS_COMPLETED.equals(job.getStatus())) {
+            throw new BadRequestException("Import job " + jobId + " has already completed");
+        }
+        Path archivePath = archivePath(jobId);
+        if (!Files.exists(archivePath)) {
+            throw new BadRequestException("Archive of import job " + jobId + " is not available on this instance");
+        }
+
+        job.setStatus(ImportJob.STATUS_RUNNING);
+        job.setOwner(instanceId);
+        job.setStartedAt(LocalDateTime.now());
+        job.setFinishedAt(null);
+        job = importJobRepository.save(job);
+        log.info("Import job {} resumed at row {} of {}", jobId, job.getProcessedRows(), job.getTotalRows());
+
+        submit(job, archivePath);
+        return convertToImportJobResponseDto(job);
+    }
+
+    public ImportJobResponseDto getImportJob(String jobId) {
+        return convertToImportJobResponseDto(findJob(jobId));
+    }
+
+    private ImportJob findJob(String jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job", "id", jobId));
+    }
+
+    private void submit(ImportJob job, Path archivePath) {
+        if (!activeJobs.add(job.getId())) {
+            throw new BadRequestException("Import job " + job.getId() + " is still running");
+        }
+        jobExecutor.submit(() -> run(job, archivePath));
+    }
+
+    private void run(ImportJob job, Path archivePath) {
+        String jobId = job.getId();
+        try (ZipFile zip = new ZipFile(archivePath.toFile())) {
+            List<ProductImportRowDto> rows = readManifest(zip);
+            Set<Integer> brandIds = brandRepository.findAll().stream().map(Brand::getId)
+                    .collect(Collectors.toSet());
+            Set<Integer> categoryIds = categoryRepository.findAll().stream().map(Category::getId)
+                    .collect(Collectors.toSet());
+
+            while (job.getProcessedRows() < rows.size()) {
+                int from = job.getProcessedRows();
+                int to = Math.min(from + batchSize, rows.size());
+                job = importBatch(job, zip, rows.subList(from, to), from, brandIds, categoryIds);
+                log.info("Import job {}: {} of {} rows done", jobId, to, rows.size());
+            }
+
+            job.setStatus(ImportJob.STATUS_COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            importJobRepository.save(job);
+            Files.deleteIfExists(archivePath);
+            log.info("Import job {} completed: {} imported, {} failed", jobId, job.getImportedProducts(),
+                    job.getFailedRows());
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", jobId, e.getMessage(), e);
+            markFailed(jobId, e);
+        } finally {
+            activeJobs.remove(jobId);
+            try {
+                catalogSnapshotService.refresh();
+            } catch (RuntimeException e) {
+                log.error("Catalog snapshot refresh after import job {} failed: {}", jobId, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Uploads the images of one batch in parallel, then inserts its products and
+     * records the progress in one transaction.
+     */
+    private ImportJob importBatch(ImportJob job, ZipFile zip, List<ProductImportRowDto> rows, int offset,
+            Set<Integer> brandIds, Set<Integer> categoryIds) throws IOException, InterruptedException {
+        List<String> errors = new ArrayList<>();
+        List<Product> products = new ArrayList<>(rows.size());
+        List<Future<String>> uploads = new ArrayList<>(rows.size());
+
+        for (int i = 0; i < rows.size(); i++) {
+            ProductImportRowDto row = rows.get(i);
+            String problem = validateRow(row, zip, brandIds, categoryIds);
+            if (problem != null) {
+                errors.add("Row " + (offset + i + 1) + ": " + problem);
+                continue;
+            }
+
+            products.add(Product.builder()
+                    .brand(Brand.builder().id(row.getBrandId()).build())
+                    .category(row.getCategoryId() != null ? Category.builder().id(row.getCategoryId()).build() : null)
+                    .name(row.getName().trim())
+                    .packaging(row.getPackaging() != null && !row.getPackaging().isBlank()
+                            ? row.getPackaging().trim()
+                            : null)
+                    .isNew(row.getIsNew() != null ? row.getIsNew() : Boolean.FALSE)
+                    .isHidden(row.getIsHidden() != null ? row.getIsHidden() : Boolean.FALSE)
+                    .build());
+
+            ZipEntry image = hasImage(row) ? zip.getEntry(row.getImage()) : null;
+            uploads.add(image != null ? uploadExecutor.submit(() -> uploadImage(zip, image)) : null);
+        }
+
+        awaitUploads(products, uploads);
+
+        ImportJob updated;
+        try {
+            updated = batchTransaction.execute(status -> {
+                assignSortKeys(products);
+                productRepository.insertProducts(products);
+                imageReferenceService.acquireAll(products.stream().map(Product::getImageS3Key).toList());
+
+                job.setProcessedRows(job.getProcessedRows() + rows.size());
+                job.setImportedProducts(job.getImportedProducts() + products.size());
+                job.setFailedRows(job.getFailedRows() + errors.size());
+                job.setErrors(appendErrors(job.getErrors(), errors));
+                return importJobRepository.save(job);
+            });
+        } catch (RuntimeException e) {
+            // The batch is retried on resume with fresh uploads
+            discardUploads(products);
+            throw e;
+        }
+        products.forEach(product -> imageVariantService.generateVariants(product.getImageS3Key()));
+        return updated;
+    }
+
+    private String uploadImage(ZipFile zip, ZipEntry image) throws IOException {
+        try (InputStream content = zip.getInputStream(image)) {
+            return storageService.uploadStream(content, image.getSize(), image.getName(),
+                    IMAGE_CONTENT_TYPES.get(extensionOf(image.getName())), "products");
+        }
+    }
+
+    /**
+     * Waits for every upload of the batch and sets the keys on the products. If one
+     * fails, images that did make it are removed again before the job fails.
+     */
+    private void awaitUploads(List<Product> products, List<Future<String>> uploads)
+            throws IOException, InterruptedException {
+        IOException failure = null;
+        for (int i = 0; i < uploads.size(); i++) {
+            Future<String> upload = uploads.get(i);
+            if (upload == null) {
+                continue;
+            }
+            try {
+                products.get(i).setImageS3Key(upload.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IOException("Image upload failed: " + e.getCause().getMessage(), e.getCause());
+                    uploads.forEach(other -> {
+                        if (other != null) {
+                            other.cancel(true);
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                uploads.forEach(other -> {
+                    if (other != null) {
+                        other.cancel(true);
+                    }
+                });
+                throw e;
+            } catch (RuntimeException e) {
+                // Cancelled after an earlier failure
+            }
+        }
+        if (failure != null) {
+            discardUploads(products);
+            throw failure;
+        }
+    }
+
+    private void discardUploads(List<Product> products) {
+        imageReferenceService.discardAll(products.stream().map(Product::getImageS3Key).toList());
+    }
+
+    /**
+     * Appends the products to every ordering scope they belong to. Locks are taken
+     * in a fixed order (all products, then brands, then categories by id), so
+     * concurrent imports cannot deadlock and reorders in a scope wait for the insert.
+     */
+    private void assignSortKeys(List<Product> products) {
+        Map<Integer, Integer> brandCounts = new HashMap<>();
+        Map<Integer, Integer> categoryCounts = new HashMap<>();
+        for (Product product : products) {
+            brandCounts.merge(product.getBrand().getId(), 1, Integer::sum);
+            if (product.getCategory() != null) {
+                categoryCounts.merge(product.getCategory().getId(), 1, Integer::sum);
+            }
+        }
+
+        productRepository.lockOrderScope(ProductOrderScope.ALL, null);
+        int lastOrder = lastKeyBeforeAppend(ProductOrderScope.ALL, null, products.size());
+
+        Map<Integer, Integer> lastBrandOrders = new HashMap<>();
+        for (Integer brandId : new TreeSet<>(brandCounts.keySet())) {
+            productRepository.lockOrderScope(ProductOrderScope.BRAND, brandId);
+            lastBrandOrders.put(brandId,
+                    lastKeyBeforeAppend(ProductOrderScope.BRAND, brandId, brandCounts.get(brandId)));
+        }
+        Map<Integer, Integer> lastCategoryOrders = new HashMap<>();
+        for (Integer categoryId : new TreeSet<>(categoryCounts.keySet())) {
+            productRepository.lockOrderScope(ProductOrderScope.CATEGORY, categoryId);
+            lastCategoryOrders.put(categoryId,
+                    lastKeyBeforeAppend(ProductOrderScope.CATEGORY, categoryId, categoryCounts.get(categoryId)));
+        }
+
+        for (Product product : products) {
+            lastOrder += ORDER_GAP;
+            product.setProductOrder(lastOrder);
+            product.setBrandOrder(lastBrandOrders.merge(product.getBrand().getId(), ORDER_GAP, Integer::sum));
+            if (product.getCategory() != null) {
+                product.setCategoryOrder(
+                        lastCategoryOrders.merge(product.getCategory().getId(), ORDER_GAP, Integer::sum));
+            }
+        }
+    }
+
+    /**
+     * Highest sort key in the scope, renumbering the scope first when appending
+     * {@code count} more keys would overflow.
+     */
+    private int lastKeyBeforeAppend(ProductOrderScope scope, Integer scopeId, int count) {
+        Integer max = productRepository.findMaxProductOrder(scope, scopeId);
+        if (max != null && (long) max + (long) count * ORDER_GAP > Integer.MAX_VALUE) {
+            productRepository.rebalanceProductOrders(scope, scopeId, ORDER_GAP);
+            max = productRepository.findMaxProductOrder(scope, scopeId);
+        }
+        return max != null ? max : 0;
+    }
+
+    private String validateRow(ProductImportRowDto row, ZipFile zip, Set<Integer> brandIds,
+            Set<Integer> categoryIds) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getBrandId() == null) {
+            return "brandId is required";
+        }
+        if (!brandIds.contains(row.getBrandId())) {
+            return "brand " + row.getBrandId() + " does not exist";
+        }
+        if (row.getCategoryId() != null && !categoryIds.contains(row.getCategoryId())) {
+            return "category " + row.getCategoryId() + " does not exist";
+        }
+        if (hasImage(row)) {
+            ZipEntry image = zip.getEntry(row.getImage());
+            if (image == null || image.isDirectory()) {
+                return "image " + row.getImage() + " is not in the archive";
+            }
+            if (!IMAGE_CONTENT_TYPES.containsKey(extensionOf(image.getName()))) {
+                return "image " + row.getImage() + " is not a supported image type";
+            }
+            if (image.getSize() > MAX_IMAGE_SIZE) {
+                return "image " + row.getImage() + " exceeds 50MB";
+            }
+        }
+        return null;
+    }
+
+    private boolean hasImage(ProductImportRowDto row) {
+        return row.getImage() != null && !row.getImage().isBlank();
+    }
+
+    private List<ProductImportRowDto> readManifest(ZipFile zip) throws IOException {
+        ZipEntry json = zip.getEntry(MANIFEST_JSON);
+        if (json != null) {
+            try (InputStream in = zip.getInputStream(json)) {
+                return objectMapper.readValue(in, new TypeReference<List<ProductImportRowDto>>() {
+                });
+            } catch (JsonProcessingException e) {
+                throw new BadRequestException("Invalid " + MANIFEST_JSON + ": " + e.getOriginalMessage());
+            }
+        }
+        ZipEntry csv = zip.getEntry(MANIFEST_CSV);
+        if (csv != null) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(zip.getInputStream(csv), StandardCharsets.UTF_8))) {
+                return readCsvManifest(reader);
+            }
+        }
+        throw new BadRequestException("Import archive must contain " + MANIFEST_JSON + " or " + MANIFEST_CSV);
+    }
+
+    /**
+     * Reads products.csv: a header row naming the columns (same names as the JSON
+     * fields, any order), then one product per row.
+     */
+    static List<ProductImportRowDto> readCsvManifest(BufferedReader reader) throws IOException {
+        List<List<String>> records = parseCsv(reader);
+        if (records.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = records.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name.toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("brandid")) {
+            throw new BadRequestException(MANIFEST_CSV + " must have at least the columns name and brandId");
+        }
+
+        List<ProductImportRowDto> rows = new ArrayList<>(records.size() - 1);
+        for (int r = 1; r < records.size(); r++) {
+            List<String> record = records.get(r);
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            int line = r + 1;
+            rows.add(ProductImportRowDto.builder()
+                    .brandId(parseInteger(cell(record, columns, "brandid"), "brandId", line))
+                    .categoryId(parseInteger(cell(record, columns, "categoryid"), "categoryId", line))
+                    .name(cell(record, columns, "name"))
+                    .packaging(cell(record, columns, "packaging"))
+                    .isNew(parseBoolean(cell(record, columns, "isnew"), "isNew", line))
+                    .isHidden(parseBoolean(cell(record, columns, "ishidden"), "isHidden", line))
+                    .image(cell(record, columns, "image"))
+                    .build());
+        }
+        return rows;
+    }
+
+    private static String cell(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseInteger(String value, String column, int line) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(MANIFEST_CSV + " line " + line + ": " + column + " must be a number");
+        }
+    }
+
+    private static Boolean parseBoolean(String value, String column, int line) {
+        if (value == null) {
+            return null;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        throw new BadRequestException(MANIFEST_CSV + " line " + line + ": " + column + " must be true or false");
+    }
+
+    /**
+     * RFC 4180 records: comma separated, fields optionally quoted, "" escapes a quote
+     * and quoted fields may span lines.
+     */
+    static List<List<String>> parseCsv(BufferedReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean pending = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            pending = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+                pending = false;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (pending) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    private String appendErrors(String existing, List<String> errors) {
+        List<String> all = new ArrayList<>();
+        if (existing != null && !existing.isEmpty()) {
+            all.addAll(Arrays.asList(existing.split("\n")));
+        }
+        for (String error : errors) {
+            if (all.size() >= MAX_ERRORS) {
+                break;
+            }
+            all.add(error.replace('\n', ' '));
+        }
+        return all.isEmpty() ? null : String.join("\n", all);
+    }
+
+    /**
+     * Copies the archive to its file, failing once it grows past the configured limit
+     *
+     * @return Number of bytes written
+     */
+    private long copyArchive(InputStream archive, Path archivePath) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(archivePath, StandardOpenOption.CREATE_NEW)) {
+            int read;
+            while ((read = archive.read(buffer)) >= 0) {
+                written += read;
+                if (written > maxArchiveSize) {
+                    throw new BadRequestException(String.format(
+                            "Import archive exceeds maximum allowed size of %d MB", maxArchiveSize / (1024 * 1024)));
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return written;
+    }
+
+    private void markFailed(String jobId, Exception cause) {
+        try {
+            // Reload: the counters of a batch that did not commit must not be kept
+            importJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(ImportJob.STATUS_FAILED);
+                job.setFinishedAt(LocalDateTime.now());
+                job.setErrors(appendErrors(job.getErrors(), List.of("Job failed: " + cause.getMessage())));
+                importJobRepository.save(job);
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not record failure of import job {}: {}", jobId, e.getMessage(), e);
+        }
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine the host name; set catalog.import.instance-id", e);
+        }
+    }
+
+    private Path archivePath(String jobId) {
+        return workDir.resolve(jobId + ".zip");
+    }
+
+    private static String extensionOf(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private ImportJobResponseDto convertToImportJobResponseDto(ImportJob job) {
+        return ImportJobResponseDto.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .owner(job.getOwner())
+                .totalRows(job.getTotalRows())
+                .processedRows(job.getProcessedRows())
+                .importedProducts(job.getImportedProducts())
+                .failedRows(job.getFailedRows())
+                .errors(job.getErrors() != null ? List.of(job.getErrors().split("\n")) : List.of())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
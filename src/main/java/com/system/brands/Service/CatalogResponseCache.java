@@ -0,0 +1,139 @@
+package com.system.brands.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Final JSON bytes (plain and gzip) of hot catalog responses, keyed by endpoint
+ * and parameters. Entries belong to one catalog snapshot version and are
+ * dropped as soon as the version moves, so serialization and compression run
+ * once per catalog change instead of once per request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogResponseCache {
+
+    /** Unknown ids still produce (empty) responses; cap the entries they can create. */
+    private static final int MAX_ENTRIES = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private volatile long entriesVersion = -1;
+
+    /**
+     * Returns the cached response for the key, serializing the body on a miss.
+     *
+     * @param key  Endpoint and parameters, e.g. "products:brand:3"
+     * @param body Produces the response object; only called on a miss
+     * @return The serialized response
+     */
+    public CachedResponse get(String key, Supplier<?> body) {
+        long version = catalogSnapshotService.current().getVersion();
+        if (version != entriesVersion) {
+            synchronized (entries) {
+                if (version != entriesVersion) {
+                    entries.clear();
+                    entriesVersion = version;
+                }
+            }
+        }
+
+        CachedResponse cached = entries.get(key);
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+
+        CachedResponse response = serialize(version, body.get());
+        if (entries.size() < MAX_ENTRIES && version == entriesVersion) {
+            entries.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Whether an Accept-Encoding header value admits gzip (absent or q=0 means no).
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CachedResponse serialize(long version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(version, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog response", e);
+        }
+    }
+
+    private byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        // Compression cost is paid once per catalog version, so use the best ratio
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Getter
+    public static final class CachedResponse {
+
+        private final long version;
+
+        private final byte[] json;
+
+        private final byte[] gzip;
+
+        CachedResponse(long version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+    }
+}
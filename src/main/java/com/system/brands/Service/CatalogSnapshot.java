@@ -0,0 +1,193 @@
+package com.system.brands.Service;
+
+import com.system.brands.Dto.BrandResponseDto;
+import com.system.brands.Dto.CategoryResponseDto;
+import com.system.brands.Dto.ProductResponseDto;
+import com.system.brands.Model.ProductOrderScope;
+import com.system.brands.Model.ProductView;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned copy of the public catalog. Built once per change by
+ * {@link CatalogSnapshotService} and then read concurrently without locking.
+ */
+public final class CatalogSnapshot {
+
+    @Getter
+    private final long version;
+
+    @Getter
+    private final List<BrandResponseDto> brands;
+
+    private final Map<Integer, BrandResponseDto> brandsById;
+
+    @Getter
+    private final List<CategoryResponseDto> categories;
+
+    private final Map<Integer, CategoryResponseDto> categoriesById;
+
+    private final Map<Integer, ProductResponseDto> productsById;
+
+    private final ProductIndex allProducts;
+
+    private final Map<Integer, ProductIndex> productsByBrand;
+
+    private final Map<Integer, ProductIndex> productsByCategory;
+
+    CatalogSnapshot(long version,
+            List<BrandResponseDto> brands,
+            Map<Integer, BrandResponseDto> brandsById,
+            List<CategoryResponseDto> categories,
+            Map<Integer, CategoryResponseDto> categoriesById,
+            Map<Integer, ProductResponseDto> productsById,
+            ProductIndex allProducts,
+            Map<Integer, ProductIndex> productsByBrand,
+            Map<Integer, ProductIndex> productsByCategory) {
+        this.version = version;
+        this.brands = List.copyOf(brands);
+        this.brandsById = Map.copyOf(brandsById);
+        this.categories = List.copyOf(categories);
+        this.categoriesById = Map.copyOf(categoriesById);
+        this.productsById = Map.copyOf(productsById);
+        this.allProducts = allProducts;
+        this.productsByBrand = Map.copyOf(productsByBrand);
+        this.productsByCategory = Map.copyOf(productsByCategory);
+    }
+
+    public static CatalogSnapshot empty() {
+        return new CatalogSnapshot(0, List.of(), Map.of(), List.of(), Map.of(), Map.of(),
+                ProductIndex.EMPTY, Map.of(), Map.of());
+    }
+
+    /**
+     * Brand including its ordered products.
+     */
+    public Optional<BrandResponseDto> getBrand(Integer id) {
+        return Optional.ofNullable(brandsById.get(id));
+    }
+
+    public Optional<CategoryResponseDto> getCategory(Integer id) {
+        return Optional.ofNullable(categoriesById.get(id));
+    }
+
+    public Optional<ProductResponseDto> getProduct(Integer id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+
+    public List<ProductResponseDto> getProducts() {
+        return allProducts.getProducts();
+    }
+
+    public List<ProductResponseDto> getProductsByBrandId(Integer brandId) {
+        return productsByBrand.getOrDefault(brandId, ProductIndex.EMPTY).getProducts();
+    }
+
+    public List<ProductResponseDto> getProductsByCategoryId(Integer categoryId) {
+        return productsByCategory.getOrDefault(categoryId, ProductIndex.EMPTY).getProducts();
+    }
+
+    /**
+     * Keyset page over the (sort key, id) ordering of all products, or of the
+     * products of one brand or category in that brand's or category's own order.
+     */
+    public ProductPage getProductsPage(Integer brandId, Integer categoryId, Integer afterOrder, Integer afterId,
+            int limit) {
+        ProductIndex index = allProducts;
+        if (brandId != null) {
+            index = productsByBrand.getOrDefault(brandId, ProductIndex.EMPTY);
+        } else if (categoryId != null) {
+            index = productsByCategory.getOrDefault(categoryId, ProductIndex.EMPTY);
+        }
+        return index.page(afterOrder, afterId, limit);
+    }
+
+    /**
+     * Products in the order of one scope together with the ordering key of each entry.
+     */
+    static final class ProductIndex {
+
+        static final ProductIndex EMPTY = new ProductIndex(ProductOrderScope.ALL, List.of(), List.of());
+
+        private final ProductOrderScope scope;
+
+        private final List<ProductView> keys;
+
+        @Getter
+        private final List<ProductResponseDto> products;
+
+        ProductIndex(ProductOrderScope scope, List<ProductView> keys, List<ProductResponseDto> products) {
+            this.scope = scope;
+            this.keys = List.copyOf(keys);
+            this.products = Collections.unmodifiableList(new ArrayList<>(products));
+        }
+
+        ProductPage page(Integer afterOrder, Integer afterId, int limit) {
+            int from = afterId == null ? 0 : firstAfter(afterOrder, afterId);
+            int to = Math.min(from + limit, products.size());
+            ProductView last = to > from ? keys.get(to - 1) : null;
+            return new ProductPage(products.subList(from, to), to < products.size(),
+                    last != null ? scope.orderOf(last) : null,
+                    last != null ? last.getId() : null);
+        }
+
+        /**
+         * Binary search for the first entry strictly after (order, id), nulls last.
+         */
+        private int firstAfter(Integer order, Integer id) {
+            int low = 0;
+            int high = keys.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(keys.get(mid), order, id) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int compare(ProductView key, Integer order, Integer id) {
+            Integer keyOrder = scope.orderOf(key);
+            if (keyOrder == null || order == null) {
+                if (keyOrder != null) {
+                    return -1;
+                }
+                if (order != null) {
+                    return 1;
+                }
+            } else if (!keyOrder.equals(order)) {
+                return keyOrder.compareTo(order);
+            }
+            return key.getId().compareTo(id);
+        }
+    }
+
+    /**
+     * One page of products plus the ordering key of its last entry.
+     */
+    @Getter
+    public static final class ProductPage {
+
+        private final List<ProductResponseDto> items;
+
+        private final boolean hasMore;
+
+        private final Integer lastOrder;
+
+        private final Integer lastId;
+
+        ProductPage(List<ProductResponseDto> items, boolean hasMore, Integer lastOrder, Integer lastId) {
+            this.items = items;
+            this.hasMore = hasMore;
+            this.lastOrder = lastOrder;
+            this.lastId = lastId;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.system.brands.Service;
+
+import com.system.brands.Dto.BrandResponseDto;
+import com.system.brands.Dto.CategoryResponseDto;
+import com.system.brands.Dto.ProductResponseDto;
+import com.system.brands.Model.Brand;
+import com.system.brands.Model.ImageVariant;
+import com.system.brands.Model.Category;
+import com.system.brands.Model.ProductOrderScope;
+import com.system.brands.Model.ProductView;
+import com.system.brands.Repository.BrandRepository;
+import com.system.brands.Repository.CategoryRepository;
+import com.system.brands.Repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the current {@link CatalogSnapshot} and swaps in a rebuilt one after
+ * every committed catalog write. Reads are a single volatile load.
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService {
+
+    private final BrandRepository brandRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ImageUrlService imageUrlService;
+    private final TransactionTemplate loadTransaction;
+
+    /** Incremented for every requested refresh, so concurrent requests can share one rebuild. */
+    private final AtomicLong refreshRequests = new AtomicLong();
+    private final Object rebuildLock = new Object();
+
+    /** Set by {@link #refreshSoon()}; cleared by the next deferred rebuild. */
+    private final AtomicBoolean deferredRefresh = new AtomicBoolean();
+
+    /** Distinguishes versions of this instance from those of earlier runs or other nodes. */
+    private final String instanceEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile long snapshotLoadedAt;
+    private long snapshotCoversRequest = -1;
+
+    public CatalogSnapshotService(BrandRepository brandRepository,
+            CategoryRepository categoryRepository,
+            ProductRepository productRepository,
+            ImageUrlService imageUrlService,
+            PlatformTransactionManager transactionManager) {
+        this.brandRepository = brandRepository;
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.imageUrlService = imageUrlService;
+
+        // Own read-only transaction so the three queries see one consistent state,
+        // even when called from an afterCommit callback
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // Reads retry the load lazily, so a database that is still starting is not fatal
+            log.error("Initial catalog snapshot load failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the current snapshot, loading it on first use.
+     */
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Strong ETag for any response derived from the current snapshot. The version
+     * only moves forward, and every catalog write moves it. Gzipped bodies carry a
+     * variant of it, see {@code CatalogResponses}.
+     */
+    public String getETag() {
+        return "\"" + instanceEpoch + "-" + current().getVersion() + "\"";
+    }
+
+    /**
+     * Rebuilds the snapshot once the surrounding transaction commits, or right away
+     * when there is no transaction. Call from every catalog write. The write has
+     * already succeeded by then, so a failed rebuild is logged and left to the
+     * next deferred refresh instead of failing the caller.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshOrDefer();
+                }
+            });
+        } else {
+            refreshOrDefer();
+        }
+    }
+
+    /**
+     * Requests a rebuild within the next deferred refresh interval. For background
+     * writes that may arrive in bursts, such as image variants during an import:
+     * any number of requests in one interval cost a single rebuild.
+     */
+    public void refreshSoon() {
+        deferredRefresh.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.deferred-refresh-interval-ms:2000}")
+    public void refreshDeferred() {
+        if (deferredRefresh.getAndSet(false)) {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.error("Deferred catalog snapshot rebuild failed, retrying: {}", e.getMessage(), e);
+                deferredRefresh.set(true);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot from the database. A caller that arrives while another
+     * rebuild is running waits for it and rebuilds again only if that rebuild
+     * started before the caller's request.
+     */
+    public void refresh() {
+        long request = refreshRequests.incrementAndGet();
+        synchronized (rebuildLock) {
+            if (snapshot != null && snapshotCoversRequest >= request) {
+                return;
+            }
+            long covers = refreshRequests.get();
+            long version = snapshot != null ? snapshot.getVersion() + 1 : 1;
+            CatalogSnapshot rebuilt = loadTransaction.execute(status -> load(version));
+            snapshot = rebuilt;
+            snapshotLoadedAt = System.currentTimeMillis();
+            snapshotCoversRequest = covers;
+            log.info("Catalog snapshot v{} loaded: {} brands, {} categories, {} products",
+                    version, rebuilt.getBrands().size(), rebuilt.getCategories().size(),
+                    rebuilt.getProducts().size());
+        }
+    }
+
+    private void refreshOrDefer() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Catalog snapshot rebuild after a write failed, retrying shortly: {}", e.getMessage(), e);
+            refreshSoon();
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot before the image URLs in it expire, when image URLs
+     * are signed. Clients see a new ETag and pick up fresh URLs.
+     */
+    @Scheduled(fixedDelayString = "${catalog.snapshot.url-check-interval-ms:60000}")
+    public void refreshExpiringUrls() {
+        Duration maxAge = imageUrlService.getUrlMaxAge();
+        if (maxAge == null || snapshot == null
+                || System.currentTimeMillis() - snapshotLoadedAt < maxAge.toMillis()) {
+            return;
+        }
+        log.info("Refreshing catalog snapshot for new image URLs");
+        refresh();
+    }
+
+    private CatalogSnapshot load(long version) {
+        List<Brand> brands = brandRepository.findAll(Sort.by("id"));
+        List<Category> categories = categoryRepository.findAll(Sort.by("id"));
+        List<ProductView> products = productRepository.findAllViewsOrderedByProductOrder();
+
+        // Brands and categories each have their own order, and with it their own positions
+        Map<Integer, List<ProductView>> brandKeys = new HashMap<>();
+        Map<Integer, List<ProductView>> categoryKeys = new HashMap<>();
+        for (ProductView view : products) {
+            brandKeys.computeIfAbsent(view.getBrandId(), id -> new ArrayList<>()).add(view);
+            if (view.getCategoryId() != null) {
+                categoryKeys.computeIfAbsent(view.getCategoryId(), id -> new ArrayList<>()).add(view);
+            }
+        }
+        Map<Integer, Integer> brandPositions = sortAndNumber(brandKeys, ProductOrderScope.BRAND);
+        Map<Integer, Integer> categoryPositions = sortAndNumber(categoryKeys, ProductOrderScope.CATEGORY);
+
+        Map<Integer, ProductResponseDto> productsById = new HashMap<>();
+        List<ProductResponseDto> orderedProducts = new ArrayList<>(products.size());
+        for (ProductView view : products) {
+            ProductResponseDto dto = convertToProductResponseDto(view, orderedProducts.size() + 1,
+                    brandPositions.get(view.getId()), categoryPositions.get(view.getId()));
+            productsById.put(view.getId(), dto);
+            orderedProducts.add(dto);
+        }
+
+        Map<Integer, List<ProductResponseDto>> brandProducts = new HashMap<>();
+        Map<Integer, CatalogSnapshot.ProductIndex> productsByBrand = new HashMap<>();
+        brandKeys.forEach((id, keys) -> {
+            List<ProductResponseDto> dtos = keys.stream().map(key -> productsById.get(key.getId())).toList();
+            brandProducts.put(id, dtos);
+            productsByBrand.put(id, new CatalogSnapshot.ProductIndex(ProductOrderScope.BRAND, keys, dtos));
+        });
+        Map<Integer, CatalogSnapshot.ProductIndex> productsByCategory = new HashMap<>();
+        categoryKeys.forEach((id, keys) -> productsByCategory.put(id,
+                new CatalogSnapshot.ProductIndex(ProductOrderScope.CATEGORY, keys,
+                        keys.stream().map(key -> productsById.get(key.getId())).toList())));
+
+        List<BrandResponseDto> brandList = new ArrayList<>(brands.size());
+        Map<Integer, BrandResponseDto> brandsById = new LinkedHashMap<>();
+        for (Brand brand : brands) {
+            brandList.add(convertToBrandResponseDto(brand, null));
+            List<ProductResponseDto> ownProducts = brandProducts.get(brand.getId());
+            brandsById.put(brand.getId(), convertToBrandResponseDto(brand,
+                    ownProducts != null ? List.copyOf(ownProducts) : null));
+        }
+
+        List<CategoryResponseDto> categoryList = new ArrayList<>(categories.size());
+        Map<Integer, CategoryResponseDto> categoriesById = new LinkedHashMap<>();
+        for (Category category : categories) {
+            CategoryResponseDto dto = CategoryResponseDto.builder()
+                    .id(category.getId())
+                    .name(category.getName())
+                    .version(category.getVersion())
+                    .build();
+            categoryList.add(dto);
+            categoriesById.put(category.getId(), dto);
+        }
+
+        return new CatalogSnapshot(version, brandList, brandsById, categoryList, categoriesById, productsById,
+                new CatalogSnapshot.ProductIndex(ProductOrderScope.ALL, products, orderedProducts),
+                productsByBrand, productsByCategory);
+    }
+
+    /**
+     * Sorts each group into its scope order and returns the 1-based position of every
+     * product within its group.
+     */
+    private static Map<Integer, Integer> sortAndNumber(Map<Integer, List<ProductView>> groups,
+            ProductOrderScope scope) {
+        Map<Integer, Integer> positions = new HashMap<>();
+        for (List<ProductView> group : groups.values()) {
+            group.sort(scope.viewOrder());
+            for (int i = 0; i < group.size(); i++) {
+                positions.put(group.get(i).getId(), i + 1);
+            }
+        }
+        return positions;
+    }
+
+    private BrandResponseDto convertToBrandResponseDto(Brand brand, List<ProductResponseDto> products) {
+        BrandResponseDto.BrandResponseDtoBuilder builder = BrandResponseDto.builder()
+                .id(brand.getId())
+                .name(brand.getName())
+                .nameEnglish(brand.getNameEnglish())
+                .version(brand.getVersion())
+                .products(products);
+
+        if (brand.getImageS3Key() != null) {
+            builder.imageUrl(imageUrlService.getImageUrl(brand.getImageS3Key()));
+            if (Boolean.TRUE.equals(brand.getImageVariantsReady())) {
+                builder.imageVariants(ImageVariant.urlsFor(brand.getImageS3Key(), imageUrlService::getImageUrl));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Sort keys are sparse, so clients see the 1-based position in each order
+     * instead. Those are the values {@code newOrder} of a reorder request refers to.
+     */
+    public ProductResponseDto convertToProductResponseDto(ProductView product, Integer position,
+            Integer brandPosition, Integer categoryPosition) {
+        ProductResponseDto.ProductResponseDtoBuilder builder = ProductResponseDto.builder()
+                .id(product.getId())
+                .brandId(product.getBrandId())
+                .brandName(product.getBrandName())
+                .categoryId(product.getCategoryId())
+                .categoryName(product.getCategoryName())
+                .name(product.getName())
+                .productOrder(position)
+                .brandOrder(brandPosition)
+                .categoryOrder(categoryPosition)
+                .packaging(product.getPackaging())
+                .isNew(product.getIsNew())
+                .isHidden(product.getIsHidden())
+                .version(product.getVersion());
+
+        if (product.getImageS3Key() != null) {
+            builder.imageUrl(imageUrlService.getImageUrl(product.getImageS3Key()));
+            if (Boolean.TRUE.equals(product.getImageVariantsReady())) {
+                builder.imageVariants(ImageVariant.urlsFor(product.getImageS3Key(), imageUrlService::getImageUrl));
+            }
+        }
+
+        return builder.build();
+    }
+}
@@ -3,6 +3,7 @@ package com.system.brands.Service;
 import com.system.brands.Dto.CategoryRequestDto;
 import com.system.brands.Dto.CategoryResponseDto;
 import com.system.brands.Exception.DuplicateResourceException;
+import com.system.brands.Exception.PreconditionFailedException;
 import com.system.brands.Exception.ResourceNotFoundException;
 import com.system.brands.Model.Category;
 import com.system.brands.Repository.CategoryRepository;
@@ -13,7 +14,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -22,19 +22,15 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
 
-    @Transactional(readOnly = true)
     public List<CategoryResponseDto> getAllCategories() {
-        return categoryRepository.findAll().stream()
-                .map(this::convertToCategoryResponseDto)
-                .collect(Collectors.toList());
+        return catalogSnapshotService.current().getCategories();
     }
 
-    @Transactional(readOnly = true)
     public CategoryResponseDto getCategoryById(Integer id) {
-        Category category = categoryRepository.findById(id)
+        return catalogSnapshotService.current().getCategory(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
-        return convertToCategoryResponseDto(category);
     }
 
     @Transactional
@@ -48,13 +44,21 @@ public class CategoryService {
                 .build();
 
         Category savedCategory = categoryRepository.save(category);
+        catalogSnapshotService.refreshAfterCommit();
         return convertToCategoryResponseDto(savedCategory);
     }
 
+    /**
+     * @param expectedVersion Version the client based its edit on (from If-Match), or
+     *                        null to skip the check
+     */
     @Transactional
-    public CategoryResponseDto updateCategory(Integer id, CategoryRequestDto requestDto) {
+    public CategoryResponseDto updateCategory(Integer id, CategoryRequestDto requestDto, Long expectedVersion) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+        if (expectedVersion != null && !expectedVersion.equals(category.getVersion())) {
+            throw new PreconditionFailedException("Category", id, expectedVersion, category.getVersion());
+        }
 
         // Check if new name already exists for another category
         if (!category.getName().equals(requestDto.getName()) &&
@@ -63,7 +67,9 @@ public class CategoryService {
         }
 
         category.setName(requestDto.getName());
-        Category updatedCategory = categoryRepository.save(category);
+        // Flush so the response carries the incremented version
+        Category updatedCategory = categoryRepository.saveAndFlush(category);
+        catalogSnapshotService.refreshAfterCommit();
         return convertToCategoryResponseDto(updatedCategory);
     }
 
@@ -85,12 +91,14 @@ public class CategoryService {
         log.info("Products in category {} have been reassigned to default category (id = {})", id, DEFAULT_CATEGORY_ID);
 
         categoryRepository.delete(category);
+        catalogSnapshotService.refreshAfterCommit();
     }
 
     private CategoryResponseDto convertToCategoryResponseDto(Category category) {
         return CategoryResponseDto.builder()
                 .id(category.getId())
                 .name(category.getName())
+                .version(category.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,372 @@
+package com.system.brands.Service;
+
+import com.system.brands.Model.ImageVariant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Bounded least-recently-used cache of stored images on local disk, in front of
+ * the {@link StorageService}. A hit costs one local file read; a miss downloads
+ * the object once, however many requests ask for it at the same time. Keys never
+ * name different content later, so entries are only dropped to stay within the
+ * size limit or when the object is deleted. Images are handed out as file paths,
+ * so the connector can send them with sendfile(2). The connector opens the file
+ * by name only after the controller returns, so an evicted file is retired first
+ * and deleted after a delay. A response that is already being sent keeps reading
+ * its open file after the delete.
+ */
+@Slf4j
+@Service
+public class ImageCacheService {
+
+    /** Folders whose objects are served; staged uploads are not. */
+    private static final List<String> SERVED_FOLDERS = List.of("brands/", "products/", ImageVariant.KEY_PREFIX);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** Bytes moved into the file channel per transfer call. */
+    private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+
+    private final StorageService storageService;
+    private final Path directory;
+    private final long maxBytes;
+    private final long retireDelayMillis;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    /** Cached files by name, least recently used first. Guarded by {@code this}. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    /** Evicted files by name, with the time they were evicted. Guarded by {@code this}. */
+    private final Map<String, Long> retired = new HashMap<>();
+
+    /**
+     * Downloads in progress, so concurrent misses for one key share a single fetch.
+     * Completes with whether the object exists; each waiter opens the file itself.
+     */
+    private final Map<String, CompletableFuture<Boolean>> loading = new ConcurrentHashMap<>();
+
+    public ImageCacheService(StorageService storageService,
+            MeterRegistry meterRegistry,
+            @Value("${images.cache.dir:${java.io.tmpdir}/brands-image-cache}") String directory,
+            @Value("${images.cache.max-size-mb:1024}") long maxSizeMb,
+            @Value("${images.cache.retire-delay-ms:60000}") long retireDelayMillis) throws IOException {
+        this.storageService = storageService;
+        this.directory = Files.createDirectories(Path.of(directory)).toRealPath();
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.retireDelayMillis = retireDelayMillis;
+        this.hitCounter = Counter.builder("images.cache.hits")
+                .description("Image requests served from the local disk cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("images.cache.misses")
+                .description("Image requests that fetched the image from storage")
+                .register(meterRegistry);
+        Gauge.builder("images.cache.size", this, cache -> cache.cachedBytes())
+                .description("Bytes held in the local image cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        loadExisting();
+    }
+
+    /**
+     * @return The cached image, downloaded first if needed, or null if
+     *         {@code key} is not a served image or does not exist. Its file stays
+     *         in place for at least the retire delay.
+     */
+    public CachedImage get(String key) throws IOException {
+        if (key == null || key.contains("..") || SERVED_FOLDERS.stream().noneMatch(key::startsWith)) {
+            return null;
+        }
+
+        String name = fileName(key);
+        CachedImage cached = lookup(name);
+        if (cached != null) {
+            hitCounter.increment();
+            return cached;
+        }
+
+        CompletableFuture<Boolean> own = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = loading.putIfAbsent(name, own);
+        if (running != null) {
+            if (!await(running)) {
+                return null;
+            }
+            cached = lookup(name);
+            // Evicted again before this waiter got to it
+            return cached != null ? cached : get(key);
+        }
+        missCounter.increment();
+        try {
+            CachedImage fetched = fetch(key, name);
+            own.complete(fetched != null);
+            return fetched;
+        } catch (IOException | RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(name, own);
+        }
+    }
+
+    /**
+     * Drops the cached copies of deleted objects
+     */
+    public synchronized void evictAll(Collection<String> keys) {
+        for (String key : keys) {
+            String name = fileName(key);
+            Entry entry = entries.remove(name);
+            if (entry != null) {
+                totalBytes -= entry.size;
+                retire(name);
+            }
+        }
+    }
+
+    /**
+     * Deletes files retired longer than the retire delay ago. By then any response
+     * that was handed one of them has opened it.
+     */
+    @Scheduled(fixedDelayString = "${images.cache.retire-sweep-interval-ms:10000}")
+    public synchronized void deleteRetired() {
+        long cutoff = System.currentTimeMillis() - retireDelayMillis;
+        Iterator<Map.Entry<String, Long>> candidates = retired.entrySet().iterator();
+        while (candidates.hasNext()) {
+            Map.Entry<String, Long> candidate = candidates.next();
+            if (candidate.getValue() <= cutoff) {
+                deleteQuietly(directory.resolve(candidate.getKey()));
+                candidates.remove();
+            }
+        }
+    }
+
+    private synchronized long cachedBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return The cached image, or null if it is not cached (any more)
+     */
+    private synchronized CachedImage lookup(String name) {
+        Entry entry = entries.get(name);
+        return entry != null ? toCachedImage(name, entry) : null;
+    }
+
+    private CachedImage fetch(String key, String name) throws IOException {
+        Path temp = Files.createTempFile(directory, null, TEMP_SUFFIX);
+        try {
+            long size;
+            try (InputStream content = storageService.openFile(key)) {
+                size = write(content, temp);
+            } catch (IOException e) {
+                if (!storageService.fileExists(key)) {
+                    return null;
+                }
+                throw e;
+            }
+
+            String contentType = sniffContentType(temp, key);
+            Path file = directory.resolve(name);
+            Entry entry;
+            synchronized (this) {
+                // Replaces a retired copy of the same image, which must then not be deleted
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                retired.remove(name);
+                entry = new Entry(size, Files.getLastModifiedTime(file).toMillis(), contentType);
+                admit(name, entry);
+            }
+            log.debug("Image cached: key={}, size={} bytes", key, size);
+            return toCachedImage(name, entry);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Adds an entry and evicts the least recently used ones beyond the size limit;
+     * the newest entry always stays, even if it alone exceeds the limit.
+     */
+    private synchronized void admit(String name, Entry entry) {
+        Entry previous = entries.put(name, entry);
+        totalBytes += entry.size - (previous != null ? previous.size : 0);
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1) {
+            Map.Entry<String, Entry> victim = eldest.next();
+            totalBytes -= victim.getValue().size;
+            retire(victim.getKey());
+            eldest.remove();
+        }
+    }
+
+    private void retire(String name) {
+        retired.put(name, System.currentTimeMillis());
+    }
+
+    private CachedImage toCachedImage(String name, Entry entry) {
+        return new CachedImage(directory.resolve(name), entry.size, entry.lastModified, entry.contentType,
+                "\"" + name + "\"");
+    }
+
+    /**
+     * Restores the index from files left by a previous run, oldest first, and
+     * removes downloads that did not finish.
+     */
+    private void loadExisting() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> cached = files.filter(Files::isRegularFile).toList();
+            for (Path file : cached) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    deleteQuietly(file);
+                }
+            }
+            cached.stream()
+                    .filter(file -> !file.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .sorted(Comparator.comparingLong(ImageCacheService::lastModifiedMillis))
+                    .forEach(file -> {
+                        try {
+                            admit(file.getFileName().toString(), new Entry(Files.size(file),
+                                    lastModifiedMillis(file), sniffContentType(file, null)));
+                        } catch (IOException e) {
+                            deleteQuietly(file);
+                        }
+                    });
+        }
+        log.info("Image cache at {} holds {} file(s), {} bytes", directory, entries.size(), totalBytes);
+    }
+
+    /**
+     * Reads the content type from the file's signature rather than trusting the
+     * key's extension, which the uploader chose.
+     */
+    private static String sniffContentType(Path file, String key) throws IOException {
+        byte[] head = new byte[12];
+        int length;
+        try (InputStream content = Files.newInputStream(file)) {
+            length = content.readNBytes(head, 0, head.length);
+        }
+        if (length >= 3 && (head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xd8 && (head[2] & 0xff) == 0xff) {
+            return "image/jpeg";
+        }
+        if (length >= 8 && (head[0] & 0xff) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        String ascii = new String(head, 0, length, StandardCharsets.ISO_8859_1);
+        if (ascii.startsWith("GIF8")) {
+            return "image/gif";
+        }
+        if (ascii.startsWith("RIFF") && ascii.startsWith("WEBP", 8)) {
+            return "image/webp";
+        }
+        if (ascii.startsWith("BM")) {
+            return "image/bmp";
+        }
+        String byExtension = key != null ? StorageKeys.contentTypeOf(key) : null;
+        return byExtension != null ? byExtension : "application/octet-stream";
+    }
+
+    /**
+     * Cache file name for a key: its SHA-256, so any key maps to a flat, safe name
+     */
+    private static String fileName(String key) {
+        return HexFormat.of().formatHex(StorageKeys.sha256().digest(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static long write(InputStream content, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ReadableByteChannel source = Channels.newChannel(content);
+            long position = 0;
+            long transferred;
+            // A blocking source only yields 0 at end of stream
+            while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+            return position;
+        }
+    }
+
+    private static boolean await(CompletableFuture<Boolean> running) throws IOException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete cached image {}: {}", file, e.getMessage());
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final String contentType;
+    }
+
+    /**
+     * An image on local disk.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CachedImage {
+
+        private final Path file;
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final String contentType;
+
+        private final String eTag;
+    }
+}
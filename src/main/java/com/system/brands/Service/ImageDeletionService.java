@@ -0,0 +1,184 @@
+package com.system.brands.Service;
+
+import com.system.brands.Model.ImageVariant;
+import com.system.brands.Model.PendingImageDeletion;
+import com.system.brands.Repository.ImageReferenceRepository;
+import com.system.brands.Repository.PendingImageDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Transactional outbox for S3 deletions. Request paths enqueue keys in their own
+ * transaction and return without touching S3; {@link #drain()} deletes the objects
+ * in the background with multi-object requests and retries failures with backoff.
+ * Objects that gained a reference again by then are kept.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageDeletionService {
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final PendingImageDeletionRepository pendingImageDeletionRepository;
+    private final ImageReferenceRepository imageReferenceRepository;
+    private final StorageService storageService;
+    private final ImageCacheService imageCacheService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.deletion.batch-size:1000}")
+    private int batchSize;
+
+    /** How long a claimed batch stays hidden from other workers. */
+    @Value("${storage.deletion.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${storage.deletion.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    /**
+     * Schedules an object for deletion. Joins the caller's transaction, so the
+     * deletion is dropped if that transaction rolls back.
+     */
+    @Transactional
+    public void enqueue(String s3Key) {
+        if (s3Key != null && !s3Key.isEmpty()) {
+            enqueueAll(List.of(s3Key));
+        }
+    }
+
+    @Transactional
+    public void enqueueAll(Collection<String> s3Keys) {
+        enqueueAll(s3Keys, Duration.ZERO);
+    }
+
+    /**
+     * @param delay Time before the worker may delete the objects
+     */
+    @Transactional
+    public void enqueueAll(Collection<String> s3Keys, Duration delay) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingImageDeletion> deletions = s3Keys.stream()
+                .filter(Objects::nonNull)
+                .filter(key -> !key.isEmpty())
+                // Variants go with their original; deleting one that was never made is a no-op
+                .flatMap(key -> ImageVariant.originalKeyOf(key) == null
+                        ? Stream.concat(Stream.of(key), ImageVariant.keysFor(key).stream())
+                        : Stream.of(key))
+                .distinct()
+                .map(key -> PendingImageDeletion.builder()
+                        .s3Key(key)
+                        .attempts(0)
+                        .nextAttemptAt(now.plus(delay))
+                        .createdAt(now)
+                        .build())
+                .toList();
+        if (!deletions.isEmpty()) {
+            pendingImageDeletionRepository.saveAll(deletions);
+            log.debug("Queued {} S3 object(s) for deletion", deletions.size());
+        }
+    }
+
+    /**
+     * Deletes due objects batch by batch until the outbox has nothing due. Rows are
+     * claimed with a lease in one short transaction, so several instances can drain
+     * side by side. The deletion itself runs while holding the image key locks:
+     * a writer adding a reference to one of the objects waits for it, and objects
+     * referenced again are dropped from the outbox instead of deleted.
+     */
+    @Scheduled(fixedDelayString = "${storage.deletion.poll-interval-ms:5000}")
+    public void drain() {
+        List<PendingImageDeletion> batch;
+        do {
+            batch = transactionTemplate.execute(status -> claimDue());
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<PendingImageDeletion> claimed = batch;
+            transactionTemplate.executeWithoutResult(status -> delete(claimed));
+        } while (batch.size() == batchSize);
+    }
+
+    private void delete(List<PendingImageDeletion> batch) {
+        List<String> sourceKeys = batch.stream()
+                .map(deletion -> ImageVariant.sourceKeyOf(deletion.getS3Key()))
+                .distinct()
+                .toList();
+        imageReferenceRepository.lockKeys(sourceKeys);
+        Set<String> referenced = new HashSet<>(imageReferenceRepository.findReferencedKeys(sourceKeys));
+
+        List<Long> kept = batch.stream()
+                .filter(deletion -> referenced.contains(ImageVariant.sourceKeyOf(deletion.getS3Key())))
+                .map(PendingImageDeletion::getId)
+                .toList();
+        pendingImageDeletionRepository.deleteAllByIdInBatch(kept);
+
+        List<PendingImageDeletion> due = batch.stream()
+                .filter(deletion -> !referenced.contains(ImageVariant.sourceKeyOf(deletion.getS3Key())))
+                .toList();
+        Map<String, String> failures = due.isEmpty()
+                ? Map.of()
+                : storageService.deleteFiles(due.stream().map(PendingImageDeletion::getS3Key).distinct().toList());
+        imageCacheService.evictAll(due.stream()
+                .map(PendingImageDeletion::getS3Key)
+                .filter(key -> !failures.containsKey(key))
+                .toList());
+        settle(due, failures);
+        log.info("Processed {} pending S3 deletion(s): {} kept as referenced again, {} failed",
+                batch.size(), kept.size(), failures.size());
+    }
+
+    private List<PendingImageDeletion> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingImageDeletion> due = pendingImageDeletionRepository.findDueForUpdate(now, batchSize);
+        if (!due.isEmpty()) {
+            pendingImageDeletionRepository.postpone(due.stream().map(PendingImageDeletion::getId).toList(),
+                    now.plusSeconds(leaseSeconds));
+        }
+        return due;
+    }
+
+    private void settle(List<PendingImageDeletion> batch, Map<String, String> failures) {
+        List<Long> deleted = batch.stream()
+                .filter(deletion -> !failures.containsKey(deletion.getS3Key()))
+                .map(PendingImageDeletion::getId)
+                .toList();
+        pendingImageDeletionRepository.deleteAllByIdInBatch(deleted);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingImageDeletion deletion : batch) {
+            String error = failures.get(deletion.getS3Key());
+            if (error != null) {
+                log.warn("Deleting S3 object failed (attempt {}): key={}, error={}",
+                        deletion.getAttempts() + 1, deletion.getS3Key(), error);
+                pendingImageDeletionRepository.recordFailure(deletion.getId(),
+                        now.plus(backoff(deletion.getAttempts())), truncate(error));
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(retryDelaySeconds).multipliedBy(1L << Math.min(attempts, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
@@ -0,0 +1,129 @@
+package com.system.brands.Service;
+
+import com.system.brands.Repository.ImageReferenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Counts how many brands and products point at each S3 object. Callers acquire
+ * and release in the same transaction that sets or drops the reference; an object
+ * is queued for deletion only when its last reference goes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageReferenceService {
+
+    private final ImageReferenceRepository imageReferenceRepository;
+    private final ImageDeletionService imageDeletionService;
+    private final StorageService storageService;
+
+    /**
+     * How long an unreferenced content-addressed object is kept, so an identical
+     * upload arriving shortly after can still reuse it.
+     */
+    @Value("${storage.dedup.release-delay-seconds:3600}")
+    private long releaseDelaySeconds;
+
+    @Transactional
+    public void acquire(String s3Key) {
+        acquireAll(Collections.singletonList(s3Key));
+    }
+
+    /**
+     * In content-addressed mode an upload may have skipped its write because the
+     * object already existed, and the deletion worker may have removed that object
+     * before the reference was taken. Objects nobody referenced yet are therefore
+     * checked again once their key locks are held; from then on no deletion can
+     * interfere. A missing one fails the transaction, and the retried upload
+     * writes the object again.
+     *
+     * @throws OptimisticLockingFailureException if an object was deleted meanwhile
+     */
+    @Transactional
+    public void acquireAll(Collection<String> s3Keys) {
+        Map<String, Integer> counts = countKeys(s3Keys);
+        if (counts.isEmpty()) {
+            return;
+        }
+        imageReferenceRepository.lockKeys(counts.keySet());
+        if (storageService.isContentAddressed()) {
+            requireStored(counts.keySet());
+        }
+        imageReferenceRepository.addReferences(counts);
+    }
+
+    @Transactional
+    public void release(String s3Key) {
+        releaseAll(Collections.singletonList(s3Key));
+    }
+
+    @Transactional
+    public void releaseAll(Collection<String> s3Keys) {
+        Map<String, Integer> counts = countKeys(s3Keys);
+        if (counts.isEmpty()) {
+            return;
+        }
+        imageReferenceRepository.lockKeys(counts.keySet());
+        Set<String> unreferenced = imageReferenceRepository.removeReferences(counts);
+        if (!unreferenced.isEmpty()) {
+            imageDeletionService.enqueueAll(unreferenced, releaseDelay());
+            log.debug("{} of {} released S3 object(s) are no longer referenced", unreferenced.size(), counts.size());
+        }
+    }
+
+    /**
+     * Drops uploads whose write failed before any reference was taken. They go
+     * through the outbox with the same delay as released objects: a
+     * content-addressed key may already be shared by a concurrent request that
+     * found the object and skipped its own upload, but has not acquired it yet.
+     */
+    @Transactional
+    public void discard(String s3Key) {
+        discardAll(Collections.singletonList(s3Key));
+    }
+
+    @Transactional
+    public void discardAll(Collection<String> s3Keys) {
+        Map<String, Integer> counts = countKeys(s3Keys);
+        if (!counts.isEmpty()) {
+            imageDeletionService.enqueueAll(counts.keySet(), releaseDelay());
+        }
+    }
+
+    private void requireStored(Set<String> s3Keys) {
+        Set<String> referenced = new HashSet<>(imageReferenceRepository.findReferencedKeys(s3Keys));
+        for (String s3Key : s3Keys) {
+            if (!referenced.contains(s3Key) && !storageService.fileExists(s3Key)) {
+                throw new OptimisticLockingFailureException(
+                        "Image " + s3Key + " was deleted before it could be referenced");
+            }
+        }
+    }
+
+    private Duration releaseDelay() {
+        return storageService.isContentAddressed() ? Duration.ofSeconds(releaseDelaySeconds) : Duration.ZERO;
+    }
+
+    private static Map<String, Integer> countKeys(Collection<String> s3Keys) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        s3Keys.stream()
+                .filter(Objects::nonNull)
+                .filter(key -> !key.isEmpty())
+                .forEach(key -> counts.merge(key, 1, Integer::sum));
+        return counts;
+    }
+}
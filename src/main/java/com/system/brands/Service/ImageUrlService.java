@@ -0,0 +1,59 @@
+package com.system.brands.Service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Builds the image URLs put into responses: through the caching image endpoint
+ * when {@code images.proxy.public-url} is set, straight from storage otherwise.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageUrlService {
+
+    private final StorageService storageService;
+
+    @Value("${images.proxy.public-url:}")
+    private String proxyUrlBase;
+
+    @Value("${aws.s3.presigned-urls:false}")
+    private boolean presignedUrls;
+
+    /**
+     * The image endpoint is off in presigned mode, so proxy URLs would all be dead
+     */
+    @PostConstruct
+    void checkProxyMode() {
+        if (presignedUrls && proxyUrlBase != null && !proxyUrlBase.isEmpty()) {
+            throw new IllegalStateException("images.proxy.public-url cannot be combined with aws.s3.presigned-urls: "
+                    + "the image endpoint would serve the private bucket without signatures");
+        }
+    }
+
+    /**
+     * @return The URL for an image key, or null for no key
+     */
+    public String getImageUrl(String key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        if (proxyUrlBase != null && !proxyUrlBase.isEmpty()) {
+            return proxyUrlBase + "/" + key;
+        }
+        return storageService.getFileUrl(key);
+    }
+
+    /**
+     * @return How long URLs from {@link #getImageUrl} may be kept, or null if they do not expire
+     */
+    public Duration getUrlMaxAge() {
+        if (proxyUrlBase != null && !proxyUrlBase.isEmpty()) {
+            return null;
+        }
+        return storageService.getFileUrlMaxAge();
+    }
+}
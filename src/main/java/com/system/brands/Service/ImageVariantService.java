@@ -0,0 +1,282 @@
+package com.system.brands.Service;
+
+import com.system.brands.Model.ImageVariant;
+import com.system.brands.Repository.BrandRepository;
+import com.system.brands.Repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the resized {@link ImageVariant}s of uploaded images on a bounded worker
+ * pool, after the row referencing the image has committed. Once all variants are
+ * stored, rows still pointing at that image are flagged so responses list them;
+ * until then clients fall back to the original. Work that did not fit the queue
+ * or was lost at shutdown is picked up by a periodic sweep over unflagged rows.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private final StorageService storageService;
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final TransactionTemplate markTransaction;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final int backfillBatchSize;
+    private final ThreadPoolExecutor executor;
+
+    /** Keys queued or in progress, so the sweep does not queue them twice. */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Keys that can never get variants (unreadable, corrupt or too large), skipped
+     * by the sweep until restart.
+     */
+    private final Set<String> unprocessable = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(StorageService storageService,
+            ProductRepository productRepository,
+            BrandRepository brandRepository,
+            CatalogSnapshotService catalogSnapshotService,
+            PlatformTransactionManager transactionManager,
+            @Value("${images.variants.workers:2}") int workers,
+            @Value("${images.variants.queue-capacity:500}") int queueCapacity,
+            @Value("${images.variants.jpeg-quality:0.82}") float jpegQuality,
+            @Value("${images.variants.max-megapixels:40}") long maxMegapixels,
+            @Value("${images.variants.backfill-batch-size:200}") int backfillBatchSize) {
+        this.storageService = storageService;
+        this.productRepository = productRepository;
+        this.brandRepository = brandRepository;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.markTransaction = new TransactionTemplate(transactionManager);
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxMegapixels * 1_000_000;
+        this.backfillBatchSize = backfillBatchSize;
+        AtomicInteger counter = new AtomicInteger();
+        // A full queue rejects new work rather than decoding on request or import threads;
+        // the backfill sweep picks rejected keys up later
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues variant generation for a committed image key. Does nothing for null.
+     */
+    public void generateVariants(String s3Key) {
+        if (s3Key == null || !pending.add(s3Key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(s3Key);
+                } finally {
+                    pending.remove(s3Key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(s3Key);
+            log.warn("Image variant queue full, {} left to the backfill sweep", s3Key);
+        }
+    }
+
+    /**
+     * Queues images whose rows are not flagged yet: uploads from before variants
+     * existed, work rejected by a full queue and work lost at shutdown. Only fills
+     * the free queue capacity, so it never crowds out new uploads.
+     */
+    @Scheduled(fixedDelayString = "${images.variants.backfill-interval-ms:300000}",
+            initialDelayString = "${images.variants.backfill-initial-delay-ms:60000}")
+    public void backfill() {
+        int capacity = Math.min(backfillBatchSize, executor.getQueue().remainingCapacity());
+        if (capacity <= 0) {
+            return;
+        }
+        // Ordered by key, so skipped keys take the same places in every sweep and the
+        // page still holds enough keys that need work
+        PageRequest page = PageRequest.of(0, capacity + unprocessable.size() + pending.size());
+        Set<String> keys = new LinkedHashSet<>(productRepository.findImageKeysWithoutVariants(page));
+        keys.addAll(brandRepository.findImageKeysWithoutVariants(page));
+        keys.removeAll(unprocessable);
+        keys.removeAll(pending);
+
+        int queued = 0;
+        for (String key : keys) {
+            if (queued == capacity) {
+                break;
+            }
+            generateVariants(key);
+            queued++;
+        }
+        if (queued > 0) {
+            log.info("Queued {} image(s) without variants", queued);
+        }
+    }
+
+    private void process(String s3Key) {
+        try {
+            BufferedImage source = decode(s3Key);
+            if (source == null) {
+                unprocessable.add(s3Key);
+                return;
+            }
+
+            String format = ImageVariant.formatOf(s3Key);
+            boolean png = ImageVariant.PNG.equals(format);
+            for (ImageVariant variant : ImageVariant.values()) {
+                BufferedImage resized = resize(source, variant.getMaxSize(), png);
+                byte[] encoded = png ? encodePng(resized) : encodeJpeg(resized);
+                storageService.putFile(variant.keyFor(s3Key), encoded, png ? "image/png" : "image/jpeg");
+            }
+
+            Integer marked = markTransaction.execute(status -> productRepository.markImageVariantsReady(s3Key)
+                    + brandRepository.markImageVariantsReady(s3Key));
+            if (marked != null && marked > 0) {
+                // Deferred, so a burst of variants (e.g. an import) costs one snapshot rebuild
+                catalogSnapshotService.refreshSoon();
+            }
+            log.info("Image variants stored for {} ({}x{})", s3Key, source.getWidth(), source.getHeight());
+        } catch (IOException | RuntimeException e) {
+            log.error("Generating image variants failed for {}: {}", s3Key, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes the image after checking its dimensions in the header, so a small
+     * file that expands to a huge bitmap is rejected before any pixel is allocated.
+     *
+     * @return The image, or null if its format is not readable, its content is
+     *         corrupt or unsupported (such as a CMYK JPEG), or it has more pixels
+     *         than allowed
+     * @throws IOException if the content could not be read from storage
+     */
+    private BufferedImage decode(String s3Key) throws IOException {
+        try (InputStream content = storageService.openFile(s3Key);
+                ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                log.info("No image variants for {}: format not readable", s3Key);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("No image variants for {}: {}x{} exceeds {} pixels", s3Key, reader.getWidth(0),
+                            reader.getHeight(0), maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } catch (IIOException | EOFException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                // Decoding the same bytes again fails the same way, so no stack trace and no retry
+                log.warn("No image variants for {}: content not decodable ({})", s3Key, e.getMessage());
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales down in halving steps, so bilinear filtering still averages all source
+     * pixels on large reductions.
+     */
+    static BufferedImage resize(BufferedImage source, int maxSize, boolean alpha) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(width / 2, targetWidth);
+            height = Math.max(height / 2, targetHeight);
+            current = draw(current, width, height, alpha);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!alpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
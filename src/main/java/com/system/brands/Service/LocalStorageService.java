@@ -0,0 +1,278 @@
+package com.system.brands.Service;
+
+import com.system.brands.Dto.ImageUploadResponseDto;
+import com.system.brands.Exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps images as files below a root directory, for local development and
+ * benchmarks without AWS. Uploads are copied into the file channel and moved into
+ * place atomically; {@code LocalFileController} serves them back with sendfile.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageService implements StorageService {
+
+    /** Objects handed to the page consumer at a time, as with one S3 list page. */
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    /** Bytes moved into the file channel per transfer call. */
+    private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+
+    private final Path root;
+    private final String publicUrlBase;
+    private final boolean contentAddressed;
+
+    public LocalStorageService(
+            @Value("${storage.local.root-dir:${java.io.tmpdir}/brands-storage}") String rootDir,
+            @Value("${storage.local.public-url:/files}") String publicUrlBase,
+            @Value("${storage.local.content-addressed:false}") boolean contentAddressed) throws IOException {
+        this.root = Files.createDirectories(Path.of(rootDir)).toRealPath();
+        this.publicUrlBase = publicUrlBase;
+        this.contentAddressed = contentAddressed;
+        Files.createDirectories(this.root.resolve(STAGING_FOLDER));
+        log.info("Local storage backend at {}", this.root);
+    }
+
+    @Override
+    public boolean isContentAddressed() {
+        return contentAddressed;
+    }
+
+    @Override
+    public String uploadFile(MultipartFile file, String folder) throws IOException {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+
+        try (InputStream content = file.getInputStream()) {
+            return uploadStream(content, file.getSize(), file.getOriginalFilename(), file.getContentType(), folder);
+        }
+    }
+
+    /**
+     * Writes the content to a staging file, then moves it to its key. In
+     * content-addressed mode the digest is computed on the way and the staging
+     * file is dropped if the key already exists.
+     */
+    @Override
+    public String uploadStream(InputStream content, long size, String originalFilename, String contentType,
+            String folder) throws IOException {
+        String extension = StorageKeys.extensionOf(originalFilename, contentType);
+        MessageDigest digest = contentAddressed ? StorageKeys.sha256() : null;
+        Path staged = resolve(STAGING_FOLDER + UUID.randomUUID());
+        try {
+            long written = write(digest != null ? new DigestInputStream(content, digest) : content, staged);
+            String key = digest != null
+                    ? StorageKeys.digestKey(folder, digest, extension)
+                    : folder + "/" + UUID.randomUUID() + extension;
+            Path target = resolve(key);
+            Files.createDirectories(target.getParent());
+            if (digest != null && Files.exists(target)) {
+                log.info("Identical file already stored, upload dropped: key={}", key);
+            } else {
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                log.info("File stored locally: key={}, size={} bytes", key, written);
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    @Override
+    public void putFile(String key, byte[] content, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path staged = resolve(STAGING_FOLDER + UUID.randomUUID());
+        try {
+            try (FileChannel channel = FileChannel.open(staged, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("File stored locally: key={}, size={} bytes", key, content.length);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    @Override
+    public InputStream openFile(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void deleteFile(String key) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(resolve(key));
+            log.info("File deleted locally: key={}", key);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Error deleting local file {}: {}", key, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, String> deleteFiles(Collection<String> keys) {
+        Map<String, String> failures = new HashMap<>();
+        for (String key : keys) {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException | IllegalArgumentException e) {
+                failures.put(key, e.getMessage());
+            }
+        }
+        if (!failures.isEmpty()) {
+            log.warn("Could not delete {} of {} local file(s)", failures.size(), keys.size());
+        }
+        return failures;
+    }
+
+    @Override
+    public void listFiles(String prefix, Consumer<List<StoredObject>> pageConsumer) {
+        Path directory = resolve(prefix);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<StoredObject> page = new ArrayList<>(LIST_PAGE_SIZE);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                page.add(new StoredObject(keyOf(file), Files.getLastModifiedTime(file).toInstant()));
+                if (page.size() == LIST_PAGE_SIZE) {
+                    pageConsumer.accept(List.copyOf(page));
+                    page.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list local files under " + prefix, e);
+        }
+        if (!page.isEmpty()) {
+            pageConsumer.accept(page);
+        }
+    }
+
+    @Override
+    public String getFileUrl(String key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        return publicUrlBase + "/" + key;
+    }
+
+    @Override
+    public Duration getFileUrlMaxAge() {
+        return null;
+    }
+
+    @Override
+    public boolean fileExists(String key) {
+        if (key == null || key.isEmpty()) {
+            return false;
+        }
+        return Files.isRegularFile(resolve(key));
+    }
+
+    /**
+     * Direct uploads need a store the client can reach; clients upload through
+     * the image endpoints instead.
+     */
+    @Override
+    public ImageUploadResponseDto presignUpload(String folder, String contentType, long contentLength,
+            String sha256Hex) {
+        throw new BadRequestException("Direct uploads are not available with local storage; "
+                + "upload the image through the image endpoint instead");
+    }
+
+    @Override
+    public boolean isUploadedImage(String folder, String key) {
+        return StorageKeys.isUploadKey(folder, key)
+                && StorageKeys.contentTypeOf(key) != null
+                && Files.isRegularFile(resolve(key));
+    }
+
+    /**
+     * @return The file holding {@code key}, or null if there is none
+     */
+    public Path findFile(String key) {
+        try {
+            Path file = resolve(key);
+            return Files.isRegularFile(file) ? file : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The content type to serve {@code key} with
+     */
+    public String contentTypeOf(String key) {
+        String contentType = StorageKeys.contentTypeOf(key);
+        return contentType != null ? contentType : "application/octet-stream";
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Key outside the storage root: " + key);
+        }
+        return path;
+    }
+
+    private String keyOf(Path file) {
+        return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * Copies the content into a new file through its channel, chunk by chunk
+     *
+     * @return Number of bytes written
+     */
+    private static long write(InputStream content, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ReadableByteChannel source = Channels.newChannel(content);
+            long position = 0;
+            long transferred;
+            // A blocking source only yields 0 at end of stream
+            while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.system.brands.Service;
+
+import com.system.brands.Model.ImageVariant;
+import com.system.brands.Repository.ImageReferenceRepository;
+import com.system.brands.Repository.PendingImageDeletionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Removes image objects that no brand or product references any more, such as
+ * uploads whose transaction failed before the outbox existed. Walks the image
+ * folders page by page and checks each page's keys against the database with one
+ * query, so the cost is one round trip per 1000 objects.
+ */
+@Slf4j
+@Service
+public class OrphanImageCollector {
+
+    private static final List<String> IMAGE_FOLDERS = List.of("brands/", "products/", ImageVariant.KEY_PREFIX,
+            StorageService.STAGING_FOLDER);
+
+    private final StorageService storageService;
+    private final PendingImageDeletionRepository pendingImageDeletionRepository;
+    private final ImageReferenceRepository imageReferenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+    private final boolean dryRun;
+    private final Counter scannedCounter;
+    private final Counter orphanedCounter;
+    private final Counter deletedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OrphanImageCollector(StorageService storageService,
+            PendingImageDeletionRepository pendingImageDeletionRepository,
+            ImageReferenceRepository imageReferenceRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${storage.gc.grace-period-hours:24}") long gracePeriodHours,
+            @Value("${storage.gc.dry-run:false}") boolean dryRun) {
+        this.storageService = storageService;
+        this.pendingImageDeletionRepository = pendingImageDeletionRepository;
+        this.imageReferenceRepository = imageReferenceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.gracePeriod = Duration.ofHours(gracePeriodHours);
+        this.dryRun = dryRun;
+        this.scannedCounter = Counter.builder("storage.gc.scanned")
+                .description("Stored objects examined by the orphan image collector")
+                .register(meterRegistry);
+        this.orphanedCounter = Counter.builder("storage.gc.orphaned")
+                .description("Stored objects found without a database reference")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("storage.gc.deleted")
+                .description("Orphaned stored objects deleted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Objects younger than the grace period are skipped: images are uploaded
+     * before the row referencing them commits.
+     */
+    @Scheduled(cron = "${storage.gc.cron:0 30 3 * * *}")
+    public void collect() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Orphan image collection already running, skipping");
+            return;
+        }
+        try {
+            Instant cutoff = Instant.now().minus(gracePeriod);
+            for (String folder : IMAGE_FOLDERS) {
+                storageService.listFiles(folder, page -> collectPage(page, cutoff));
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void collectPage(List<StoredObject> page, Instant cutoff) {
+        scannedCounter.increment(page.size());
+        List<String> candidates = page.stream()
+                .filter(object -> object.getLastModified() == null || object.getLastModified().isBefore(cutoff))
+                .map(StoredObject::getKey)
+                .toList();
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // A variant lives as long as the image it was made from
+        List<String> sourceKeys = candidates.stream().map(ImageVariant::sourceKeyOf).distinct().toList();
+        transactionTemplate.executeWithoutResult(status -> collectOrphans(candidates, sourceKeys));
+    }
+
+    /**
+     * Checks and deletes while holding the image key locks, like the deletion
+     * worker: an upload that reuses an existing object takes its reference under
+     * the same lock, so it either sees the object gone or keeps it from deletion.
+     */
+    private void collectOrphans(List<String> candidates, List<String> sourceKeys) {
+        imageReferenceRepository.lockKeys(sourceKeys);
+        Set<String> known = new HashSet<>(pendingImageDeletionRepository.findKnownKeys(sourceKeys));
+        List<String> orphans = candidates.stream()
+                .filter(key -> !known.contains(ImageVariant.sourceKeyOf(key)))
+                .toList();
+        if (orphans.isEmpty()) {
+            return;
+        }
+        orphanedCounter.increment(orphans.size());
+
+        if (dryRun) {
+            log.info("Found {} orphaned image(s) (dry run, not deleted), first: {}", orphans.size(), orphans.get(0));
+            return;
+        }
+        Map<String, String> failures = storageService.deleteFiles(orphans);
+        deletedCounter.increment(orphans.size() - failures.size());
+        log.info("Deleted {} orphaned image(s), {} failed", orphans.size() - failures.size(), failures.size());
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.system.brands.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.system.brands.Dto.ProductResponseDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Streams the whole product catalog to the response from the current snapshot,
+ * one product at a time. The export never holds a database connection, however
+ * long the client takes to read it, and always shows one consistent version.
+ */
+@Slf4j
+@Service
+public class ProductExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
+
+    public ProductExportService(CatalogSnapshotService catalogSnapshotService, ObjectMapper objectMapper) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.objectMapper = objectMapper;
+        // Flushing is batched below; newlines between NDJSON rows are written explicitly
+        this.productWriter = objectMapper.writerFor(ProductResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
+    }
+
+    /**
+     * Writes every product in product order.
+     *
+     * @param out       Response stream (left open)
+     * @param jsonArray true for a single JSON array, false for NDJSON (one object per line)
+     */
+    public void exportProducts(OutputStream out, boolean jsonArray) throws IOException {
+        // Taken once, so a write during a slow download cannot mix two versions
+        List<ProductResponseDto> products = catalogSnapshotService.current().getProducts();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (jsonArray) {
+                generator.writeStartArray();
+            }
+
+            long written = 0;
+            for (ProductResponseDto product : products) {
+                productWriter.writeValue(generator, product);
+                if (!jsonArray) {
+                    generator.writeRaw('\n');
+                }
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+
+            if (jsonArray) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+            log.info("Exported {} products", written);
+        }
+    }
+}
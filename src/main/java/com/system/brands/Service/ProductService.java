@@ -1,47 +1,71 @@
 package com.system.brands.Service;
 
+import com.system.brands.Dto.ImageUploadRequestDto;
+import com.system.brands.Dto.ImageUploadResponseDto;
+import com.system.brands.Dto.ProductBatchOrderRequestDto;
 import com.system.brands.Dto.ProductOrderRequestDto;
+import com.system.brands.Dto.ProductPageResponseDto;
 import com.system.brands.Dto.ProductRequestDto;
 import com.system.brands.Dto.ProductResponseDto;
+import com.system.brands.Exception.BadRequestException;
+import com.system.brands.Exception.PreconditionFailedException;
 import com.system.brands.Exception.ResourceNotFoundException;
 import com.system.brands.Model.Brand;
 import com.system.brands.Model.Category;
+import com.system.brands.Model.ImageVariant;
 import com.system.brands.Model.Product;
+import com.system.brands.Model.ProductOrderScope;
+import com.system.brands.Model.ProductView;
 import com.system.brands.Repository.BrandRepository;
 import com.system.brands.Repository.CategoryRepository;
 import com.system.brands.Repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.system.brands.Model.ProductOrderScope.ORDER_GAP;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+        private static final int DEFAULT_PAGE_SIZE = 50;
+        private static final int MAX_PAGE_SIZE = 200;
+
         private final ProductRepository productRepository;
         private final BrandRepository brandRepository;
         private final CategoryRepository categoryRepository;
-        private final S3StorageService s3StorageService;
+        private final StorageService storageService;
+        private final ImageUrlService imageUrlService;
+        private final ImageReferenceService imageReferenceService;
+        private final ImageVariantService imageVariantService;
+        private final CatalogSnapshotService catalogSnapshotService;
+        private final TransactionTemplate transactionTemplate;
 
-        @Transactional(readOnly = true)
         public List<ProductResponseDto> getAllProducts() {
-                return productRepository.findAllOrderedByProductOrder().stream()
-                                .map(this::convertToProductResponseDto)
-                                .collect(Collectors.toList());
+                return catalogSnapshotService.current().getProducts();
         }
 
-        @Transactional(readOnly = true)
         public ProductResponseDto getProductById(Integer id) {
-                Product product = productRepository.findById(id)
+                return catalogSnapshotService.current().getProduct(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-                return convertToProductResponseDto(product);
         }
 
         @Transactional(readOnly = true)
@@ -50,22 +74,53 @@ public class ProductService {
                                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         }
 
-        @Transactional(readOnly = true)
         public List<ProductResponseDto> getProductsByBrandId(Integer brandId) {
-                return productRepository.findByBrandIdOrderedByProductOrder(brandId).stream()
-                                .map(this::convertToProductResponseDto)
-                                .collect(Collectors.toList());
+                return catalogSnapshotService.current().getProductsByBrandId(brandId);
         }
 
-        @Transactional(readOnly = true)
         public List<ProductResponseDto> getProductsByCategoryId(Integer categoryId) {
-                return productRepository.findByCategoryIdOrderedByProductOrder(categoryId).stream()
-                                .map(this::convertToProductResponseDto)
-                                .collect(Collectors.toList());
+                return catalogSnapshotService.current().getProductsByCategoryId(categoryId);
         }
 
-        @Transactional
+        public ProductPageResponseDto getProductsPage(String cursor, Integer size) {
+                return getProductsPage(null, null, cursor, size);
+        }
+
+        public ProductPageResponseDto getProductsPageByBrandId(Integer brandId, String cursor, Integer size) {
+                return getProductsPage(brandId, null, cursor, size);
+        }
+
+        public ProductPageResponseDto getProductsPageByCategoryId(Integer categoryId, String cursor, Integer size) {
+                return getProductsPage(null, categoryId, cursor, size);
+        }
+
+        /**
+         * Uploads the image before the transaction opens, so no database connection
+         * waits on S3; the insert itself is a short commit. The upload is removed
+         * again if the insert fails.
+         */
         public ProductResponseDto createProduct(ProductRequestDto requestDto, MultipartFile image) throws IOException {
+                // Fail fast on unknown references before spending time on the upload
+                if (!brandRepository.existsById(requestDto.getBrandId())) {
+                        throw new ResourceNotFoundException("Brand", "id", requestDto.getBrandId());
+                }
+                if (requestDto.getCategoryId() != null && !categoryRepository.existsById(requestDto.getCategoryId())) {
+                        throw new ResourceNotFoundException("Category", "id", requestDto.getCategoryId());
+                }
+
+                String imageS3Key = uploadImage(image);
+                ProductResponseDto response;
+                try {
+                        response = transactionTemplate.execute(status -> insertProduct(requestDto, imageS3Key));
+                } catch (RuntimeException e) {
+                        discardUpload(imageS3Key);
+                        throw e;
+                }
+                imageVariantService.generateVariants(imageS3Key);
+                return response;
+        }
+
+        private ProductResponseDto insertProduct(ProductRequestDto requestDto, String imageS3Key) {
                 Brand brand = brandRepository.findById(requestDto.getBrandId())
                                 .orElseThrow(() -> new ResourceNotFoundException("Brand", "id",
                                                 requestDto.getBrandId()));
@@ -77,13 +132,6 @@ public class ProductService {
                                                         requestDto.getCategoryId()));
                 }
 
-                // Upload image to S3
-                String imageS3Key = null;
-                if (image != null && !image.isEmpty()) {
-                        imageS3Key = s3StorageService.uploadFile(image, "products");
-                        log.info("Product image uploaded to S3: key={}", imageS3Key);
-                }
-
                 Product product = Product.builder()
                                 .brand(brand)
                                 .category(category)
@@ -92,28 +140,128 @@ public class ProductService {
                                 .packaging(requestDto.getPackaging())
                                 .isNew(requestDto.getIsNew())
                                 .isHidden(requestDto.getIsHidden())
+                                .productOrder(nextAppendOrder(ProductOrderScope.ALL, null))
+                                .brandOrder(nextAppendOrder(ProductOrderScope.BRAND, brand.getId()))
+                                .categoryOrder(category != null
+                                                ? nextAppendOrder(ProductOrderScope.CATEGORY, category.getId())
+                                                : null)
                                 .build();
 
                 Product savedProduct = productRepository.save(product);
-                // Initialize productOrder to id if not set
-                if (savedProduct.getProductOrder() == null) {
-                        savedProduct.setProductOrder(savedProduct.getId());
-                        savedProduct = productRepository.save(savedProduct);
+                imageReferenceService.acquire(imageS3Key);
+                catalogSnapshotService.refreshAfterCommit();
+                // Appended in every scope, so it is last everywhere
+                return convertToProductResponseDto(savedProduct,
+                                (int) productRepository.count(),
+                                (int) productRepository.countByBrandId(brand.getId()),
+                                category != null ? (int) productRepository.countByCategoryId(category.getId()) : null);
+        }
+
+        /**
+         * @param expectedVersion Version the client based its edit on (from If-Match), or
+         *                        null to skip the check. A concurrent update that commits
+         *                        first still fails this one through the entity version.
+         */
+        public ProductResponseDto updateProduct(Integer id, ProductRequestDto requestDto, MultipartFile image,
+                        Long expectedVersion) throws IOException {
+                if (!productRepository.existsById(id)) {
+                        throw new ResourceNotFoundException("Product", "id", id);
                 }
-                return convertToProductResponseDto(savedProduct);
+
+                // Same split as createProduct
+                String imageS3Key = uploadImage(image);
+                ProductResponseDto response;
+                try {
+                        response = transactionTemplate.execute(status -> applyProductUpdate(id, requestDto,
+                                        imageS3Key, expectedVersion));
+                } catch (RuntimeException e) {
+                        discardUpload(imageS3Key);
+                        throw e;
+                }
+                imageVariantService.generateVariants(imageS3Key);
+                return response;
         }
 
-        @Transactional
-        public ProductResponseDto updateProduct(Integer id, ProductRequestDto requestDto, MultipartFile image)
-                        throws IOException {
+        /**
+         * Replaces a product's image with content streamed from the request body. The
+         * upload runs before the transaction opens, as in {@link #updateProduct}.
+         *
+         * @param contentLength Body length in bytes, or -1 if unknown
+         */
+        public ProductResponseDto replaceProductImage(Integer id, InputStream content, long contentLength,
+                        String contentType, Long expectedVersion) throws IOException {
+                if (!productRepository.existsById(id)) {
+                        throw new ResourceNotFoundException("Product", "id", id);
+                }
+
+                String imageS3Key = storageService.uploadStream(content, contentLength, null, contentType, "products");
+                log.info("Product image streamed to S3: key={}", imageS3Key);
+                ProductResponseDto response;
+                try {
+                        response = transactionTemplate.execute(status -> applyProductUpdate(id,
+                                        ProductRequestDto.builder().build(), imageS3Key, expectedVersion));
+                } catch (RuntimeException e) {
+                        discardUpload(imageS3Key);
+                        throw e;
+                }
+                imageVariantService.generateVariants(imageS3Key);
+                return response;
+        }
+
+        /**
+         * Issues a presigned URL the client uploads a new product image to; the image
+         * replaces the current one once {@link #attachProductImage} is called.
+         */
+        public ImageUploadResponseDto presignProductImageUpload(Integer id, ImageUploadRequestDto requestDto) {
+                if (!productRepository.existsById(id)) {
+                        throw new ResourceNotFoundException("Product", "id", id);
+                }
+
+                return storageService.presignUpload("products", requestDto.getContentType(),
+                                requestDto.getContentLength(), requestDto.getSha256());
+        }
+
+        /**
+         * Makes an image uploaded through a presigned URL the product's image. If this
+         * fails the object stays unreferenced, and the client may retry; otherwise the
+         * orphan collector removes it.
+         */
+        public ProductResponseDto attachProductImage(Integer id, String imageS3Key, Long expectedVersion) {
+                if (!productRepository.existsById(id)) {
+                        throw new ResourceNotFoundException("Product", "id", id);
+                }
+                if (!storageService.isUploadedImage("products", imageS3Key)) {
+                        throw new BadRequestException("No uploaded product image found for key: " + imageS3Key);
+                }
+
+                ProductResponseDto response = transactionTemplate.execute(status -> applyProductUpdate(id,
+                                ProductRequestDto.builder().build(), imageS3Key, expectedVersion));
+                log.info("Attached directly uploaded image to product {}: key={}", id, imageS3Key);
+                imageVariantService.generateVariants(imageS3Key);
+                return response;
+        }
+
+        private ProductResponseDto applyProductUpdate(Integer id, ProductRequestDto requestDto, String imageS3Key,
+                        Long expectedVersion) {
                 Product product = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+                if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+                        throw new PreconditionFailedException("Product", id, expectedVersion, product.getVersion());
+                }
+
+                ProductResponseDto known = catalogSnapshotService.current().getProduct(id).orElse(null);
+                Integer brandPosition = known != null ? known.getBrandOrder() : null;
+                Integer categoryPosition = known != null ? known.getCategoryOrder() : null;
 
-                // Only update brand if provided
+                // Only update brand if provided; a product moved to another brand goes last there
                 if (requestDto.getBrandId() != null) {
                         Brand brand = brandRepository.findById(requestDto.getBrandId())
                                         .orElseThrow(() -> new ResourceNotFoundException("Brand", "id",
                                                         requestDto.getBrandId()));
+                        if (!brand.getId().equals(product.getBrand().getId())) {
+                                product.setBrandOrder(nextAppendOrder(ProductOrderScope.BRAND, brand.getId()));
+                                brandPosition = (int) productRepository.countByBrandId(brand.getId()) + 1;
+                        }
                         product.setBrand(brand);
                 }
 
@@ -122,6 +270,11 @@ public class ProductService {
                         Category category = categoryRepository.findById(requestDto.getCategoryId())
                                         .orElseThrow(() -> new ResourceNotFoundException("Category", "id",
                                                         requestDto.getCategoryId()));
+                        if (product.getCategory() == null || !category.getId().equals(product.getCategory().getId())) {
+                                product.setCategoryOrder(
+                                                nextAppendOrder(ProductOrderScope.CATEGORY, category.getId()));
+                                categoryPosition = (int) productRepository.countByCategoryId(category.getId()) + 1;
+                        }
                         product.setCategory(category);
                 }
 
@@ -147,20 +300,36 @@ public class ProductService {
                 }
 
                 // Handle image update
-                if (image != null && !image.isEmpty()) {
-                        // Delete old image from S3 if exists
-                        if (product.getImageS3Key() != null) {
-                                s3StorageService.deleteFile(product.getImageS3Key());
-                                log.info("Old product image deleted from S3: key={}", product.getImageS3Key());
-                        }
-                        // Upload new image to S3
-                        String imageS3Key = s3StorageService.uploadFile(image, "products");
+                if (imageS3Key != null) {
+                        // Acquire before releasing, so re-uploading identical content never
+                        // lets the shared object's count touch zero
+                        imageReferenceService.acquire(imageS3Key);
+                        imageReferenceService.release(product.getImageS3Key());
                         product.setImageS3Key(imageS3Key);
-                        log.info("New product image uploaded to S3: key={}", imageS3Key);
+                        product.setImageVariantsReady(false);
                 }
 
-                Product updatedProduct = productRepository.save(product);
-                return convertToProductResponseDto(updatedProduct);
+                // Flush so the response carries the incremented version
+                Product updatedProduct = productRepository.saveAndFlush(product);
+                catalogSnapshotService.refreshAfterCommit();
+                return convertToProductResponseDto(updatedProduct, known != null ? known.getProductOrder() : null,
+                                brandPosition, categoryPosition);
+        }
+
+        private String uploadImage(MultipartFile image) throws IOException {
+                if (image == null || image.isEmpty()) {
+                        return null;
+                }
+                String imageS3Key = storageService.uploadFile(image, "products");
+                log.info("Product image uploaded to S3: key={}", imageS3Key);
+                return imageS3Key;
+        }
+
+        private void discardUpload(String imageS3Key) {
+                if (imageS3Key != null) {
+                        imageReferenceService.discard(imageS3Key);
+                        log.info("Discarding product image after failed write: key={}", imageS3Key);
+                }
         }
 
         @Transactional
@@ -168,13 +337,11 @@ public class ProductService {
                 Product product = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
-                // Delete associated image from S3
-                if (product.getImageS3Key() != null) {
-                        s3StorageService.deleteFile(product.getImageS3Key());
-                        log.info("Product image deleted from S3: key={}", product.getImageS3Key());
-                }
+                // The image is deleted from S3 once no row refers to it any more
+                imageReferenceService.release(product.getImageS3Key());
 
                 productRepository.delete(product);
+                catalogSnapshotService.refreshAfterCommit();
         }
 
         @Transactional
@@ -182,52 +349,308 @@ public class ProductService {
                 Product product = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
-                // Delete image from S3 if exists
+                // Delete image from S3 if exists, after the reference is dropped
                 if (product.getImageS3Key() != null) {
-                        s3StorageService.deleteFile(product.getImageS3Key());
-                        log.info("Product image deleted from S3: key={}", product.getImageS3Key());
+                        imageReferenceService.release(product.getImageS3Key());
                         product.setImageS3Key(null);
-                        product = productRepository.save(product);
+                        product.setImageVariantsReady(false);
+                        product = productRepository.saveAndFlush(product);
+                        catalogSnapshotService.refreshAfterCommit();
                 }
 
-                return convertToProductResponseDto(product);
+                ProductResponseDto known = catalogSnapshotService.current().getProduct(id).orElse(null);
+                return convertToProductResponseDto(product, known != null ? known.getProductOrder() : null,
+                                known != null ? known.getBrandOrder() : null,
+                                known != null ? known.getCategoryOrder() : null);
         }
 
+        /**
+         * Moves a product to the 1-based position {@code newOrder} within the requested
+         * scope (all products, its brand or its category), as if it were taken out of
+         * that list and inserted there. Sort keys are sparse, so only the moved row is
+         * written; the scope is renumbered only when the neighbours have no room left
+         * between them. Reorders in the same scope are serialized, other scopes run
+         * in parallel.
+         */
         @Transactional
         public ProductResponseDto reorderProduct(ProductOrderRequestDto requestDto) {
-                Product product = productRepository.findById(requestDto.getProductId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Product", "id",
-                                                requestDto.getProductId()));
+                ProductOrderScope scope = resolveScope(requestDto.getScope());
+                ProductView product = findProductView(requestDto.getProductId());
+                Integer scopeId = requireScopeId(scope, product);
+                productRepository.lockOrderScope(scope, scopeId);
+
+                // Re-read under the lock so the key reflects any reorder that just committed
+                product = findProductView(requestDto.getProductId());
+                if (!Objects.equals(scope.scopeIdOf(product), scopeId)) {
+                        // A concurrent edit, not an If-Match mismatch: same 409 as a lost optimistic lock
+                        throw new OptimisticLockingFailureException("Product " + product.getId()
+                                        + " was moved to another " + scopeName(scope) + " meanwhile");
+                }
+                int total = countInScope(scope, scopeId);
+                int position = Math.max(1, Math.min(requestDto.getNewOrder(), total));
+
+                Integer[] neighbours = findNeighbourOrders(productRepository, scope, scopeId, product.getId(),
+                                position);
+                Integer newOrder = neighbours != null ? orderBetween(neighbours[0], neighbours[1]) : null;
+                if (newOrder == null) {
+                        log.info("No room for product {} at position {} of {} order {}, rebalancing",
+                                        product.getId(), position, scope, scopeId);
+                        productRepository.rebalanceProductOrders(scope, scopeId, ORDER_GAP);
+                        product = findProductView(requestDto.getProductId());
+                        neighbours = findNeighbourOrders(productRepository, scope, scopeId, product.getId(),
+                                        position);
+                        newOrder = orderBetween(neighbours[0], neighbours[1]);
+                }
 
-                Integer currentOrder = product.getProductOrder();
-                Integer newOrder = requestDto.getNewOrder();
+                if (!isBetween(scope.orderOf(product), neighbours[0], neighbours[1])) {
+                        productRepository.updateProductOrders(scope, List.of(product.getId()), List.of(newOrder));
+                }
+                catalogSnapshotService.refreshAfterCommit();
+                return convertToProductResponseDto(product, scope, position);
+        }
 
-                if (currentOrder == null) {
-                        currentOrder = product.getId();
-                        product.setProductOrder(currentOrder);
-                        productRepository.save(product);
+        /**
+         * Applies a new order to a set of products at once. The listed products swap
+         * their current sort keys in the requested scope among themselves so they
+         * appear in the given order; every other product keeps its position. Passing
+         * all products of the scope applies a full permutation. All keys are written
+         * with a single UPDATE.
+         *
+         * @return The listed products in their new order
+         */
+        @Transactional
+        public List<ProductResponseDto> reorderProducts(ProductBatchOrderRequestDto requestDto) {
+                ProductOrderScope scope = resolveScope(requestDto.getScope());
+                List<Integer> productIds = requestDto.getProductIds();
+                Set<Integer> uniqueIds = new LinkedHashSet<>(productIds);
+                if (uniqueIds.size() != productIds.size()) {
+                        throw new BadRequestException("Each product can only appear once in a reorder");
                 }
 
-                if (currentOrder.equals(newOrder)) {
-                        return convertToProductResponseDto(product);
+                List<ProductView> current = productRepository.findViewsByIdsOrderedByProductOrder(uniqueIds);
+                if (current.size() != uniqueIds.size()) {
+                        current.forEach(view -> uniqueIds.remove(view.getId()));
+                        throw new ResourceNotFoundException("Product", "id", uniqueIds.iterator().next());
+                }
+                Integer scopeId = requireScopeId(scope, current.get(0));
+                if (current.stream().anyMatch(view -> !Objects.equals(scope.scopeIdOf(view), scopeId))) {
+                        throw new BadRequestException("All products must belong to the same " + scopeName(scope));
+                }
+                productRepository.lockOrderScope(scope, scopeId);
+
+                // Re-read under the lock so the keys reflect any reorder that just committed
+                current = productRepository.findViewsByIdsOrderedByProductOrder(uniqueIds);
+                if (current.stream().map(scope::orderOf).anyMatch(Objects::isNull)) {
+                        log.info("Products without sort key in batch reorder of {} order {}, rebalancing",
+                                        scope, scopeId);
+                        productRepository.rebalanceProductOrders(scope, scopeId, ORDER_GAP);
+                        current = productRepository.findViewsByIdsOrderedByProductOrder(uniqueIds);
                 }
+                current = new ArrayList<>(current);
+                current.sort(scope.viewOrder());
+
+                List<Integer> slots = new ArrayList<>(current.size());
+                Map<Integer, ProductView> viewsById = new HashMap<>();
+                for (ProductView view : current) {
+                        slots.add(scope.orderOf(view));
+                        viewsById.put(view.getId(), view);
+                }
+                productRepository.updateProductOrders(scope, productIds, slots);
+                catalogSnapshotService.refreshAfterCommit();
+
+                // Other products keep their keys, so each slot keeps its position as well
+                CatalogSnapshot snapshot = catalogSnapshotService.current();
+                List<ProductResponseDto> reordered = new ArrayList<>(productIds.size());
+                for (int i = 0; i < productIds.size(); i++) {
+                        Integer position = snapshot.getProduct(current.get(i).getId())
+                                        .map(slot -> positionIn(scope, slot))
+                                        .orElse(null);
+                        reordered.add(convertToProductResponseDto(viewsById.get(productIds.get(i)), scope, position));
+                }
+                return reordered;
+        }
 
-                if (newOrder < currentOrder) {
-                        productRepository.shiftOrdersUp(newOrder, currentOrder);
-                } else {
-                        productRepository.shiftOrdersDown(currentOrder, newOrder);
+        private ProductOrderScope resolveScope(ProductOrderScope scope) {
+                return scope != null ? scope : ProductOrderScope.ALL;
+        }
+
+        private ProductView findProductView(Integer id) {
+                List<ProductView> views = productRepository.findViewsByIdsOrderedByProductOrder(List.of(id));
+                if (views.isEmpty()) {
+                        throw new ResourceNotFoundException("Product", "id", id);
                 }
+                return views.get(0);
+        }
 
-                product.setProductOrder(newOrder);
-                productRepository.save(product);
+        private Integer requireScopeId(ProductOrderScope scope, ProductView product) {
+                Integer scopeId = scope.scopeIdOf(product);
+                if (scope == ProductOrderScope.CATEGORY && scopeId == null) {
+                        throw new BadRequestException("Product " + product.getId() + " has no category to be ordered in");
+                }
+                return scopeId;
+        }
+
+        private String scopeName(ProductOrderScope scope) {
+                return scope == ProductOrderScope.BRAND ? "brand" : "category";
+        }
 
-                Product updatedProduct = productRepository.findById(requestDto.getProductId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Product", "id",
-                                                requestDto.getProductId()));
-                return convertToProductResponseDto(updatedProduct);
+        private int countInScope(ProductOrderScope scope, Integer scopeId) {
+                long count = switch (scope) {
+                        case ALL -> productRepository.count();
+                        case BRAND -> productRepository.countByBrandId(scopeId);
+                        case CATEGORY -> productRepository.countByCategoryId(scopeId);
+                };
+                return (int) count;
         }
 
-        private ProductResponseDto convertToProductResponseDto(Product product) {
+        private Integer positionIn(ProductOrderScope scope, ProductResponseDto product) {
+                return switch (scope) {
+                        case ALL -> product.getProductOrder();
+                        case BRAND -> product.getBrandOrder();
+                        case CATEGORY -> product.getCategoryOrder();
+                };
+        }
+
+        /**
+         * Sort keys of the products that end up directly before and after the given
+         * position once the moved product is taken out. Either may be null at the ends.
+         * Returns null when a neighbour has no sort key yet, which needs a rebalance.
+         */
+        static Integer[] findNeighbourOrders(ProductRepository productRepository, ProductOrderScope scope,
+                        Integer scopeId, Integer productId, int position) {
+                List<Integer> orders = position == 1
+                                ? productRepository.findProductOrdersExcluding(scope, scopeId, productId, 0, 1)
+                                : productRepository.findProductOrdersExcluding(scope, scopeId, productId,
+                                                position - 2, 2);
+                if (orders.contains(null)) {
+                        return null;
+                }
+                if (position == 1) {
+                        return new Integer[] { null, orders.isEmpty() ? null : orders.get(0) };
+                }
+                return new Integer[] {
+                                orders.isEmpty() ? null : orders.get(0),
+                                orders.size() < 2 ? null : orders.get(1) };
+        }
+
+        /**
+         * Sort key strictly between the two neighbours, or null when a rebalance is
+         * needed first.
+         */
+        static Integer orderBetween(Integer before, Integer after) {
+                long low = before != null ? before : (after != null ? (long) after - 2L * ORDER_GAP : 0L);
+                long high = after != null ? after : low + 2L * ORDER_GAP;
+                if (high - low < 2 || low < Integer.MIN_VALUE || high > Integer.MAX_VALUE) {
+                        return null;
+                }
+                return (int) (low + (high - low) / 2);
+        }
+
+        private boolean isBetween(Integer order, Integer before, Integer after) {
+                return order != null
+                                && (before == null || order > before)
+                                && (after == null || order < after);
+        }
+
+        /**
+         * Sort key for a product appended after every existing one in the scope. Takes
+         * the scope's order lock, held until commit, so concurrent appends and reorders
+         * in the scope never see the same maximum.
+         */
+        private Integer nextAppendOrder(ProductOrderScope scope, Integer scopeId) {
+                productRepository.lockOrderScope(scope, scopeId);
+                Integer max = productRepository.findMaxProductOrder(scope, scopeId);
+                if (max == null) {
+                        return ORDER_GAP;
+                }
+                if (max > Integer.MAX_VALUE - ORDER_GAP) {
+                        productRepository.rebalanceProductOrders(scope, scopeId, ORDER_GAP);
+                        max = productRepository.findMaxProductOrder(scope, scopeId);
+                }
+                return max + ORDER_GAP;
+        }
+
+        /**
+         * Response for a product just moved in one scope; positions in the other scopes
+         * are unchanged and come from the current snapshot.
+         */
+        private ProductResponseDto convertToProductResponseDto(ProductView product, ProductOrderScope scope,
+                        Integer position) {
+                ProductResponseDto known = catalogSnapshotService.current().getProduct(product.getId()).orElse(null);
+                Integer productOrder = known != null ? known.getProductOrder() : null;
+                Integer brandOrder = known != null ? known.getBrandOrder() : null;
+                Integer categoryOrder = known != null ? known.getCategoryOrder() : null;
+                switch (scope) {
+                        case ALL -> productOrder = position;
+                        case BRAND -> brandOrder = position;
+                        case CATEGORY -> categoryOrder = position;
+                }
+                return catalogSnapshotService.convertToProductResponseDto(product, productOrder, brandOrder,
+                                categoryOrder);
+        }
+
+        private ProductPageResponseDto getProductsPage(Integer brandId, Integer categoryId, String cursor,
+                        Integer size) {
+                int pageSize = resolvePageSize(size);
+                Integer afterOrder = null;
+                Integer afterId = null;
+                if (cursor != null && !cursor.isBlank()) {
+                        Integer[] position = decodeCursor(cursor);
+                        afterOrder = position[0];
+                        afterId = position[1];
+                }
+
+                CatalogSnapshot.ProductPage page = catalogSnapshotService.current()
+                                .getProductsPage(brandId, categoryId, afterOrder, afterId, pageSize);
+
+                String nextCursor = page.isHasMore()
+                                ? encodeCursor(page.getLastOrder(), page.getLastId())
+                                : null;
+
+                return ProductPageResponseDto.builder()
+                                .items(page.getItems())
+                                .nextCursor(nextCursor)
+                                .size(pageSize)
+                                .hasMore(page.isHasMore())
+                                .build();
+        }
+
+        private int resolvePageSize(Integer size) {
+                if (size == null) {
+                        return DEFAULT_PAGE_SIZE;
+                }
+                if (size < 1) {
+                        throw new BadRequestException("Page size must be at least 1");
+                }
+                return Math.min(size, MAX_PAGE_SIZE);
+        }
+
+        /**
+         * Cursor format is "sortKey:id" (sort key empty when null), base64url encoded.
+         */
+        static String encodeCursor(Integer productOrder, Integer id) {
+                String raw = (productOrder != null ? productOrder.toString() : "") + ":" + id;
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Integer[] decodeCursor(String cursor) {
+                try {
+                        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                        int separator = raw.indexOf(':');
+                        if (separator < 0) {
+                                throw new BadRequestException("Invalid cursor");
+                        }
+                        String order = raw.substring(0, separator);
+                        Integer productOrder = order.isEmpty() ? null : Integer.valueOf(order);
+                        Integer id = Integer.valueOf(raw.substring(separator + 1));
+                        return new Integer[] { productOrder, id };
+                } catch (IllegalArgumentException e) {
+                        throw new BadRequestException("Invalid cursor");
+                }
+        }
+
+        private ProductResponseDto convertToProductResponseDto(Product product, Integer position,
+                        Integer brandPosition, Integer categoryPosition) {
                 ProductResponseDto.ProductResponseDtoBuilder builder = ProductResponseDto.builder()
                                 .id(product.getId())
                                 .brandId(product.getBrand().getId())
@@ -235,15 +658,22 @@ public class ProductService {
                                 .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
                                 .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
                                 .name(product.getName())
-                                .productOrder(product.getProductOrder())
+                                .productOrder(position)
+                                .brandOrder(brandPosition)
+                                .categoryOrder(categoryPosition)
                                 .packaging(product.getPackaging())
                                 .isNew(product.getIsNew())
-                                .isHidden(product.getIsHidden());
+                                .isHidden(product.getIsHidden())
+                                .version(product.getVersion());
 
                 // Get image URL from S3
                 if (product.getImageS3Key() != null) {
-                        String imageUrl = s3StorageService.getFileUrl(product.getImageS3Key());
+                        String imageUrl = imageUrlService.getImageUrl(product.getImageS3Key());
                         builder.imageUrl(imageUrl);
+                        if (Boolean.TRUE.equals(product.getImageVariantsReady())) {
+                                builder.imageVariants(ImageVariant.urlsFor(product.getImageS3Key(),
+                                                imageUrlService::getImageUrl));
+                        }
                 }
 
                 return builder.build();
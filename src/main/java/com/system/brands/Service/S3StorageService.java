@@ -1,27 +1,84 @@
 package com.system.brands.Service;
 
+import com.system.brands.Dto.ImageUploadResponseDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.URL;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
 @RequiredArgsConstructor
-public class S3StorageService {
+public class S3StorageService implements StorageService {
+
+    /** Most keys S3 accepts in one DeleteObjects request. */
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
+    /** Part size for multipart uploads; also the largest upload sent as one PutObject. */
+    private static final int PART_SIZE = 8 * 1024 * 1024;
+
+    /** Most part buffers in existence at once, which caps their memory at 64MB. */
+    private static final int MAX_PART_BUFFERS = 8;
+
+    /** Part buffers kept between uploads, so streaming uploads do not allocate 8MB each. */
+    private final BlockingQueue<byte[]> partBuffers = new ArrayBlockingQueue<>(MAX_PART_BUFFERS);
+
+    /** One permit per part buffer; a multipart upload waits for one before it allocates. */
+    private final Semaphore partBufferPermits = new Semaphore(MAX_PART_BUFFERS);
 
     private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
 
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
@@ -29,29 +86,150 @@ public class S3StorageService {
     @Value("${aws.s3.public-url:}")
     private String publicUrlBase;
 
+    @Value("${aws.s3.upload-url-expiry-seconds:900}")
+    private long uploadUrlExpirySeconds;
+
+    /** How long a multipart upload waits for a free part buffer before it fails. */
+    @Value("${aws.s3.part-buffer-wait-seconds:30}")
+    private long partBufferWaitSeconds;
+
+    /**
+     * Keys uploads by the SHA-256 of their content instead of a random UUID, so
+     * identical images are stored once and shared by all rows referencing them.
+     */
+    @Value("${aws.s3.content-addressed:false}")
+    private boolean contentAddressed;
+
+    /**
+     * Hands out presigned GET URLs instead of public ones, so the bucket can stay private.
+     */
+    @Value("${aws.s3.presigned-urls:false}")
+    private boolean presignedUrls;
+
+    @Value("${aws.s3.download-url-expiry-minutes:60}")
+    private long downloadUrlExpiryMinutes;
+
+    /** Null unless presigned URLs are on. */
+    private SignedUrlCache signedUrls;
+
+    @PostConstruct
+    void initSignedUrls() {
+        if (presignedUrls) {
+            signedUrls = new SignedUrlCache(this::presignDownload, Duration.ofMinutes(downloadUrlExpiryMinutes));
+            log.info("Presigned download URLs enabled, valid for {} minutes", downloadUrlExpiryMinutes);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (signedUrls != null) {
+            signedUrls.shutdown();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aws.s3.signed-url-sweep-ms:60000}")
+    public void evictExpiringUrls() {
+        if (signedUrls != null) {
+            signedUrls.evictExpiring();
+        }
+    }
+
+    @Override
+    public boolean isContentAddressed() {
+        return contentAddressed;
+    }
+
     /**
-     * Uploads a file to S3 and returns the S3 key (path)
+     * Uploads a file to S3 and returns the S3 key (path). In content-addressed mode
+     * the file is hashed first and not uploaded at all if S3 already holds it.
      * 
      * @param file   The file to upload
      * @param folder The folder path in S3 (e.g., "brands" or "products")
      * @return The S3 key (path) of the uploaded file
      */
+    @Override
     public String uploadFile(MultipartFile file, String folder) throws IOException {
         if (file == null || file.isEmpty()) {
             return null;
         }
 
-        try {
+        if (contentAddressed) {
+            // The part is already on local disk or in memory, so reading it twice is cheap
+            MessageDigest digest = StorageKeys.sha256();
+            try (InputStream content = new DigestInputStream(file.getInputStream(), digest)) {
+                content.transferTo(OutputStream.nullOutputStream());
+            }
+            String s3Key = StorageKeys.digestKey(folder, digest,
+                    StorageKeys.extensionOf(file.getOriginalFilename(), file.getContentType()));
+            // Only holds until the reference is taken, which checks again under the key lock
+            if (fileExists(s3Key)) {
+                log.info("Identical file already in S3, upload skipped: key={}", s3Key);
+                return s3Key;
+            }
+            try (InputStream content = file.getInputStream()) {
+                putStream(content, file.getSize(), s3Key, file.getContentType());
+            }
+            return s3Key;
+        }
+
+        try (InputStream content = file.getInputStream()) {
+            return uploadStream(content, file.getSize(), file.getOriginalFilename(), file.getContentType(), folder);
+        }
+    }
+
+    /**
+     * Uploads content to S3 and returns the S3 key (path). Content of known length up
+     * to 8MB goes up as one PutObject straight from the stream; larger or unsized
+     * content is sent as a multipart upload, one 8MB part at a time. In
+     * content-addressed mode the content is hashed while it streams to a staging
+     * key, then copied to its digest key unless that already exists.
+     *
+     * @param content          The content to upload (not closed)
+     * @param size             Content length in bytes, or -1 if unknown
+     * @param originalFilename Name the extension is taken from, may be null; the
+     *                         content type decides the extension otherwise
+     * @param contentType      MIME type, may be null
+     * @param folder           The folder path in S3 (e.g., "brands" or "products")
+     * @return The S3 key (path) of the uploaded file
+     */
+    @Override
+    public String uploadStream(InputStream content, long size, String originalFilename, String contentType,
+            String folder) throws IOException {
+        String extension = StorageKeys.extensionOf(originalFilename, contentType);
+        if (!contentAddressed) {
             // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename != null && originalFilename.contains(".")
-                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : "";
-            String filename = UUID.randomUUID().toString() + extension;
-            String s3Key = folder + "/" + filename;
+            String s3Key = folder + "/" + UUID.randomUUID() + extension;
+            putStream(content, size, s3Key, contentType);
+            return s3Key;
+        }
+
+        MessageDigest digest = StorageKeys.sha256();
+        String stagingKey = STAGING_FOLDER + UUID.randomUUID();
+        putStream(new DigestInputStream(content, digest), size, stagingKey, contentType);
+        String s3Key = StorageKeys.digestKey(folder, digest, extension);
+        try {
+            // Only holds until the reference is taken, which checks again under the key lock
+            if (fileExists(s3Key)) {
+                log.info("Identical file already in S3, staged copy dropped: key={}", s3Key);
+            } else {
+                s3Client.copyObject(builder -> builder
+                        .sourceBucket(bucketName)
+                        .sourceKey(stagingKey)
+                        .destinationBucket(bucketName)
+                        .destinationKey(s3Key));
+            }
+        } catch (S3Exception e) {
+            log.error("Error moving staged file in S3: {}", e.getMessage(), e);
+            throw new IOException("Failed to upload file to S3: " + e.getMessage(), e);
+        } finally {
+            deleteFile(stagingKey);
+        }
+        return s3Key;
+    }
 
+    private void putStream(InputStream content, long size, String s3Key, String contentType) throws IOException {
+        try {
             // Determine content type
-            String contentType = file.getContentType();
             if (contentType == null) {
                 contentType = "application/octet-stream";
             }
@@ -63,14 +241,14 @@ public class S3StorageService {
                     .contentType(contentType)
                     .build();
 
-            // Upload file
-            s3Client.putObject(putObjectRequest,
-                    RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+            if (size < 0 || size > PART_SIZE) {
+                size = uploadMultipart(content, s3Key, contentType);
+            } else {
+                s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(content, size));
+            }
 
             log.info("File uploaded to S3: bucket={}, key={}, size={} bytes",
-                    bucketName, s3Key, file.getSize());
-
-            return s3Key;
+                    bucketName, s3Key, size);
 
         } catch (S3Exception e) {
             log.error("Error uploading file to S3: {}", e.getMessage(), e);
@@ -78,11 +256,148 @@ public class S3StorageService {
         }
     }
 
+    /**
+     * Stores content under a given key, replacing any existing object
+     *
+     * @param s3Key       The S3 key (path) to write
+     * @param content     The complete content
+     * @param contentType MIME type
+     */
+    @Override
+    public void putFile(String s3Key, byte[] content, String contentType) throws IOException {
+        try {
+            s3Client.putObject(PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .contentType(contentType)
+                    .build(), RequestBody.fromBytes(content));
+            log.debug("File stored in S3: key={}, size={} bytes", s3Key, content.length);
+        } catch (S3Exception e) {
+            log.error("Error storing file in S3: {}", e.getMessage(), e);
+            throw new IOException("Failed to store file in S3: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens an S3 object for reading; the caller closes the stream
+     *
+     * @param s3Key The S3 key (path) of the file
+     */
+    @Override
+    public InputStream openFile(String s3Key) throws IOException {
+        try {
+            return s3Client.getObject(builder -> builder
+                    .bucket(bucketName)
+                    .key(s3Key));
+        } catch (S3Exception e) {
+            log.error("Error reading file from S3: {}", e.getMessage(), e);
+            throw new IOException("Failed to read file from S3: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams content to S3 part by part through a pooled buffer. Content that fits
+     * in the first part is sent as a plain PutObject. A failed upload is aborted so
+     * S3 does not keep its parts.
+     *
+     * @return Number of bytes uploaded
+     * @throws IOException if no part buffer became free in time
+     */
+    private long uploadMultipart(InputStream content, String s3Key, String contentType) throws IOException {
+        byte[] buffer = takePartBuffer();
+        String uploadId = null;
+        try {
+            int length = content.readNBytes(buffer, 0, PART_SIZE);
+            if (length < PART_SIZE) {
+                s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(s3Key)
+                        .contentType(contentType)
+                        .build(), partBody(buffer, length, contentType));
+                return length;
+            }
+
+            uploadId = s3Client.createMultipartUpload(builder -> builder
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .contentType(contentType))
+                    .uploadId();
+            List<CompletedPart> parts = new ArrayList<>();
+            long total = 0;
+            while (length > 0) {
+                int partNumber = parts.size() + 1;
+                UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(s3Key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build(), partBody(buffer, length, contentType));
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+                total += length;
+                length = content.readNBytes(buffer, 0, PART_SIZE);
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            log.debug("Multipart upload completed: key={}, parts={}", s3Key, parts.size());
+            return total;
+
+        } catch (IOException | RuntimeException e) {
+            if (uploadId != null) {
+                abortMultipart(s3Key, uploadId);
+            }
+            throw e;
+        } finally {
+            partBuffers.offer(buffer);
+            partBufferPermits.release();
+        }
+    }
+
+    /**
+     * Waits for a part buffer permit, then reuses a pooled buffer or allocates one.
+     * Allocation is bounded by the permits, however many uploads run at once.
+     */
+    private byte[] takePartBuffer() throws IOException {
+        try {
+            if (!partBufferPermits.tryAcquire(partBufferWaitSeconds, TimeUnit.SECONDS)) {
+                throw new IOException("Too many concurrent uploads to S3, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an upload buffer");
+        }
+        byte[] buffer = partBuffers.poll();
+        return buffer != null ? buffer : new byte[PART_SIZE];
+    }
+
+    private static RequestBody partBody(byte[] buffer, int length, String contentType) {
+        // Re-readable for SDK retries without copying the buffer
+        return RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer, 0, length), length,
+                contentType);
+    }
+
+    private void abortMultipart(String s3Key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(builder -> builder
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .uploadId(uploadId));
+        } catch (SdkException e) {
+            log.error("Error aborting multipart upload: key={}, uploadId={}", s3Key, uploadId, e);
+        }
+    }
+
     /**
      * Deletes a file from S3
      * 
      * @param s3Key The S3 key (path) of the file to delete
      */
+    @Override
     public void deleteFile(String s3Key) {
         if (s3Key == null || s3Key.isEmpty()) {
             return;
@@ -105,15 +420,164 @@ public class S3StorageService {
     }
 
     /**
-     * Gets the public URL for an S3 object
+     * Deletes files from S3 with one DeleteObjects request per 1000 keys. Keys that
+     * do not exist count as deleted.
+     *
+     * @param s3Keys The S3 keys (paths) of the files to delete
+     * @return The keys that could not be deleted, mapped to the reason
+     */
+    @Override
+    public Map<String, String> deleteFiles(Collection<String> s3Keys) {
+        Map<String, String> failures = new HashMap<>();
+        List<String> keys = new ArrayList<>(s3Keys);
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            List<String> chunk = keys.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, keys.size()));
+            try {
+                DeleteObjectsRequest deleteObjectsRequest = DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder()
+                                .objects(chunk.stream()
+                                        .map(key -> ObjectIdentifier.builder().key(key).build())
+                                        .toList())
+                                .quiet(true)
+                                .build())
+                        .build();
+
+                DeleteObjectsResponse response = s3Client.deleteObjects(deleteObjectsRequest);
+                response.errors().forEach(error -> failures.put(error.key(), error.code() + ": " + error.message()));
+
+                log.info("Files deleted from S3: bucket={}, requested={}, failed={}",
+                        bucketName, chunk.size(), response.errors().size());
+
+            } catch (SdkException e) {
+                log.error("Error deleting files from S3: {}", e.getMessage(), e);
+                String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                chunk.forEach(key -> failures.put(key, reason));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Lists all files under a prefix, one ListObjectsV2 page (up to 1000 keys, in
+     * key order) at a time
+     *
+     * @param prefix       The key prefix, e.g. "products/"
+     * @param pageConsumer Called with the objects of each page
+     */
+    @Override
+    public void listFiles(String prefix, Consumer<List<StoredObject>> pageConsumer) {
+        ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(listRequest)) {
+            if (!page.contents().isEmpty()) {
+                pageConsumer.accept(page.contents().stream()
+                        .map(object -> new StoredObject(object.key(), object.lastModified()))
+                        .toList());
+            }
+        }
+    }
+
+    /**
+     * Issues a presigned PUT URL for a new image under {@code folder}, so the client
+     * sends the bytes to S3 directly. The content type, length and (if given)
+     * SHA-256 are part of the signature: S3 rejects an upload that differs from
+     * what was declared. In content-addressed mode an upload with a digest is keyed
+     * by it, and no URL is issued if S3 already holds that content.
+     *
+     * @param folder        The folder path in S3 (e.g., "brands" or "products")
+     * @param contentType   Content type the upload must be sent with
+     * @param contentLength Exact size of the upload in bytes
+     * @param sha256Hex     Hex SHA-256 of the content, or null
+     */
+    @Override
+    public ImageUploadResponseDto presignUpload(String folder, String contentType, long contentLength,
+            String sha256Hex) {
+        String extension = StorageKeys.IMAGE_EXTENSIONS.getOrDefault(contentType, "");
+        byte[] digest = sha256Hex != null ? HexFormat.of().parseHex(sha256Hex) : null;
+        String s3Key;
+        if (contentAddressed && digest != null) {
+            s3Key = folder + "/" + HexFormat.of().formatHex(digest) + extension;
+            if (fileExists(s3Key)) {
+                log.info("Identical file already in S3, no upload URL issued: key={}", s3Key);
+                return ImageUploadResponseDto.builder()
+                        .s3Key(s3Key)
+                        .uploadRequired(false)
+                        .build();
+            }
+        } else {
+            s3Key = folder + "/" + UUID.randomUUID() + extension;
+        }
+
+        PutObjectRequest.Builder putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(s3Key)
+                .contentType(contentType)
+                .contentLength(contentLength);
+        if (digest != null) {
+            putRequest.checksumSHA256(Base64.getEncoder().encodeToString(digest));
+        }
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(builder -> builder
+                .signatureDuration(Duration.ofSeconds(uploadUrlExpirySeconds))
+                .putObjectRequest(putRequest.build()));
+
+        // The client's HTTP library sets Host itself
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        log.info("Presigned upload issued: key={}, size={} bytes, expires={}", s3Key, contentLength,
+                presigned.expiration());
+        return ImageUploadResponseDto.builder()
+                .s3Key(s3Key)
+                .uploadRequired(true)
+                .uploadUrl(presigned.url().toString())
+                .headers(headers)
+                .expiresAt(presigned.expiration())
+                .build();
+    }
+
+    /**
+     * Checks that {@code s3Key} names an image {@link #presignUpload} could have
+     * issued for {@code folder}, and that its upload has completed
+     */
+    @Override
+    public boolean isUploadedImage(String folder, String s3Key) {
+        if (!StorageKeys.isUploadKey(folder, s3Key)) {
+            return false;
+        }
+
+        try {
+            HeadObjectResponse head = s3Client.headObject(builder -> builder
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .build());
+            return head.contentType() != null && StorageKeys.IMAGE_EXTENSIONS.containsKey(head.contentType());
+        } catch (S3Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the URL for an S3 object: a cached presigned URL if presigned URLs are
+     * on, the public URL otherwise
      * 
      * @param s3Key The S3 key (path) of the file
-     * @return The public URL
+     * @return The URL
      */
+    @Override
     public String getFileUrl(String s3Key) {
         if (s3Key == null || s3Key.isEmpty()) {
             return null;
         }
+        if (signedUrls != null) {
+            return signedUrls.get(s3Key);
+        }
 
         try {
             // If public URL base is configured, use it
@@ -136,12 +600,32 @@ public class S3StorageService {
         }
     }
 
+    /**
+     * Presigned URLs are held for at most a quarter of their lifetime; each one
+     * handed out is valid for at least half of it
+     */
+    @Override
+    public Duration getFileUrlMaxAge() {
+        return signedUrls != null ? Duration.ofMinutes(downloadUrlExpiryMinutes).dividedBy(4) : null;
+    }
+
+    private String presignDownload(String s3Key) {
+        return s3Presigner.presignGetObject(builder -> builder
+                .signatureDuration(Duration.ofMinutes(downloadUrlExpiryMinutes))
+                .getObjectRequest(request -> request
+                        .bucket(bucketName)
+                        .key(s3Key)))
+                .url()
+                .toString();
+    }
+
     /**
      * Checks if a file exists in S3
      * 
      * @param s3Key The S3 key (path) of the file
      * @return true if file exists
      */
+    @Override
     public boolean fileExists(String s3Key) {
         if (s3Key == null || s3Key.isEmpty()) {
             return false;
@@ -0,0 +1,102 @@
+package com.system.brands.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Signed download URLs by key, so a list response costs map lookups instead of
+ * one signature per image. Each URL is handed out for the first half of its
+ * lifetime only, so any URL returned stays valid for at least half a lifetime:
+ * after a quarter it is re-signed in the background on its next use, and after
+ * half it is dropped and re-signed on demand. Keys not asked for in that time
+ * fall out with {@link #evictExpiring()}, which keeps the map to the images in use.
+ */
+@Slf4j
+final class SignedUrlCache {
+
+    private final Function<String, String> signer;
+    private final Duration lifetime;
+    private final Clock clock;
+    private final ExecutorService refresher;
+    private final Map<String, SignedUrl> urls = new ConcurrentHashMap<>();
+
+    /**
+     * @param signer   Signs a URL for a key, valid for {@code lifetime}
+     * @param lifetime How long a signed URL stays valid
+     */
+    SignedUrlCache(Function<String, String> signer, Duration lifetime) {
+        this(signer, lifetime, Clock.systemUTC(), Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "signed-url-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    SignedUrlCache(Function<String, String> signer, Duration lifetime, Clock clock, ExecutorService refresher) {
+        this.signer = signer;
+        this.lifetime = lifetime;
+        this.clock = clock;
+        this.refresher = refresher;
+    }
+
+    String get(String key) {
+        Instant now = clock.instant();
+        SignedUrl signed = urls.get(key);
+        if (signed == null || !now.isBefore(signed.evictAt)) {
+            signed = sign(key, now);
+        } else if (!now.isBefore(signed.refreshAt) && signed.refreshing.compareAndSet(false, true)) {
+            try {
+                refresher.execute(() -> sign(key, clock.instant()));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the current URL is still good for a while
+            }
+        }
+        return signed.url;
+    }
+
+    /**
+     * Drops URLs no longer fit to hand out
+     */
+    void evictExpiring() {
+        Instant now = clock.instant();
+        int before = urls.size();
+        urls.values().removeIf(signed -> !now.isBefore(signed.evictAt));
+        if (urls.size() < before) {
+            log.debug("Evicted {} signed URL(s), {} cached", before - urls.size(), urls.size());
+        }
+    }
+
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private SignedUrl sign(String key, Instant now) {
+        SignedUrl signed = new SignedUrl(signer.apply(key), now.plus(lifetime.dividedBy(4)),
+                now.plus(lifetime.dividedBy(2)));
+        urls.put(key, signed);
+        return signed;
+    }
+
+    private static final class SignedUrl {
+        private final String url;
+        private final Instant refreshAt;
+        private final Instant evictAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        SignedUrl(String url, Instant refreshAt, Instant evictAt) {
+            this.url = url;
+            this.refreshAt = refreshAt;
+            this.evictAt = evictAt;
+        }
+    }
+}
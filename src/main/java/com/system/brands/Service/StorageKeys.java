@@ -0,0 +1,66 @@
+package com.system.brands.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Key naming shared by the storage backends.
+ */
+final class StorageKeys {
+
+    static final Map<String, String> IMAGE_EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/jpg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp",
+            "image/bmp", ".bmp");
+
+    private static final Map<String, String> EXTENSION_TYPES = Map.of(
+            ".jpg", "image/jpeg",
+            ".jpeg", "image/jpeg",
+            ".png", "image/png",
+            ".gif", "image/gif",
+            ".webp", "image/webp",
+            ".bmp", "image/bmp");
+
+    /** Keys handed out for direct uploads: a UUID or SHA-256 name below the folder. */
+    private static final Pattern UPLOAD_KEY = Pattern.compile(
+            "[a-z]+/([0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}|[0-9a-f]{64})\\.[a-z]+");
+
+    private StorageKeys() {
+    }
+
+    static String extensionOf(String originalFilename, String contentType) {
+        return originalFilename != null && originalFilename.contains(".")
+                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                : contentType != null ? IMAGE_EXTENSIONS.getOrDefault(contentType, "") : "";
+    }
+
+    /**
+     * @return The image type matching the key's extension, or null
+     */
+    static String contentTypeOf(String key) {
+        int dot = key.lastIndexOf('.');
+        return dot >= 0 ? EXTENSION_TYPES.get(key.substring(dot).toLowerCase()) : null;
+    }
+
+    static boolean isUploadKey(String folder, String key) {
+        return key != null && key.startsWith(folder + "/") && UPLOAD_KEY.matcher(key).matches();
+    }
+
+    static String digestKey(String folder, MessageDigest digest, String extension) {
+        return folder + "/" + HexFormat.of().formatHex(digest.digest()) + extension;
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.system.brands.Service;
+
+import com.system.brands.Dto.ImageUploadResponseDto;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Object storage holding brand and product images, addressed by key (path).
+ * {@link S3StorageService} is the default backend; {@link LocalStorageService}
+ * keeps objects on the local filesystem for development and benchmarks. The
+ * backend is chosen with {@code storage.backend}.
+ */
+public interface StorageService {
+
+    /** Where streamed uploads land while their digest is computed. */
+    String STAGING_FOLDER = "staging/";
+
+    /**
+     * @return Whether uploads are keyed by the SHA-256 of their content, so
+     *         identical images share one object
+     */
+    boolean isContentAddressed();
+
+    /**
+     * Uploads a file and returns its key
+     *
+     * @param file   The file to upload
+     * @param folder The folder (e.g., "brands" or "products")
+     * @return The key, or null if the file is empty
+     */
+    String uploadFile(MultipartFile file, String folder) throws IOException;
+
+    /**
+     * Uploads content and returns its key
+     *
+     * @param content          The content to upload (not closed)
+     * @param size             Content length in bytes, or -1 if unknown
+     * @param originalFilename Name to take the extension from, or null
+     * @param contentType      MIME type, also used for the extension when there is no filename
+     * @param folder           The folder (e.g., "brands" or "products")
+     */
+    String uploadStream(InputStream content, long size, String originalFilename, String contentType,
+            String folder) throws IOException;
+
+    /**
+     * Stores content under a given key, replacing any existing object
+     */
+    void putFile(String key, byte[] content, String contentType) throws IOException;
+
+    /**
+     * Opens an object for reading; the caller closes the stream
+     */
+    InputStream openFile(String key) throws IOException;
+
+    /**
+     * Deletes one object; failures are logged, not thrown
+     */
+    void deleteFile(String key);
+
+    /**
+     * Deletes objects in as few requests as the backend allows
+     *
+     * @return Keys that could not be deleted, with the reason
+     */
+    Map<String, String> deleteFiles(Collection<String> keys);
+
+    /**
+     * Lists every object under {@code prefix}, handing them over page by page
+     */
+    void listFiles(String prefix, Consumer<List<StoredObject>> pageConsumer);
+
+    /**
+     * @return The URL clients load the object from, or null for no key
+     */
+    String getFileUrl(String key);
+
+    /**
+     * @return How long a URL from {@link #getFileUrl} may be kept before asking
+     *         again, or null if the URLs do not expire
+     */
+    Duration getFileUrlMaxAge();
+
+    boolean fileExists(String key);
+
+    /**
+     * Issues a URL the client uploads a new image under {@code folder} to directly
+     *
+     * @param sha256Hex Hex SHA-256 of the content, or null
+     */
+    ImageUploadResponseDto presignUpload(String folder, String contentType, long contentLength, String sha256Hex);
+
+    /**
+     * Checks that {@code key} names an image {@link #presignUpload} could have
+     * issued for {@code folder}, and that its upload has completed
+     */
+    boolean isUploadedImage(String folder, String key);
+}
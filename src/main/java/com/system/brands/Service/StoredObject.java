@@ -0,0 +1,19 @@
+package com.system.brands.Service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * An object found while listing a {@link StorageService}.
+ */
+@Getter
+@AllArgsConstructor
+public class StoredObject {
+
+    private final String key;
+
+    /** Null if the backend did not report it. */
+    private final Instant lastModified;
+}
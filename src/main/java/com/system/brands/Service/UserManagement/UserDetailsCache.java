@@ -0,0 +1,84 @@
+package com.system.brands.Service.UserManagement;
+
+import com.system.brands.Repository.UserRepository;
+import com.system.brands.Security.AuthenticatedUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Users behind authenticated requests, kept for a short time so a request with a
+ * verified token needs no database round trip. Login still reads the database
+ * through the authentication provider. Entries are immutable copies without the
+ * password hash, shared by concurrent requests. They expire after the TTL, which
+ * bounds how long a change to a user goes unnoticed; code that changes or deletes
+ * a user should call {@link #invalidate}.
+ */
+@Slf4j
+@Service
+public class UserDetailsCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+
+    /** Least recently used first. Guarded by itself. */
+    private final Map<String, CachedUser> users;
+
+    public UserDetailsCache(UserRepository userRepository,
+            @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${security.user-cache.max-size:1000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.users = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @throws UsernameNotFoundException if there is no such user; not cached
+     */
+    public AuthenticatedUser loadUserByUsername(String username) {
+        long now = System.currentTimeMillis();
+        synchronized (users) {
+            CachedUser cached = users.get(username);
+            if (cached != null && now - cached.loadedAt < ttlMillis) {
+                return cached.user;
+            }
+        }
+
+        AuthenticatedUser user = userRepository.findByUsername(username)
+                .map(AuthenticatedUser::of)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        synchronized (users) {
+            users.put(username, new CachedUser(user, now));
+        }
+        return user;
+    }
+
+    /**
+     * Drops a user whose row was changed or deleted
+     */
+    public void invalidate(String username) {
+        synchronized (users) {
+            users.remove(username);
+        }
+        log.debug("User details cache entry dropped: {}", username);
+    }
+
+    private static final class CachedUser {
+        private final AuthenticatedUser user;
+        private final long loadedAt;
+
+        CachedUser(AuthenticatedUser user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.system.brands.Controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponsesTests {
+
+	private static final String ETAG = "\"abc-7\"";
+
+	@Test
+	void gzipETagStaysQuoted() {
+		assertThat(CatalogResponses.gzipETag(ETAG)).isEqualTo("\"abc-7-gzip\"");
+	}
+
+	@Test
+	void identityRequestGetsThePlainETag() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(CatalogResponses.checkNotModified(ETAG, request(null, null, response))).isFalse();
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+	}
+
+	@Test
+	void gzipRequestGetsTheGzipETag() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(CatalogResponses.checkNotModified(ETAG, request("gzip, br", null, response))).isFalse();
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-7-gzip\"");
+	}
+
+	@Test
+	void eachEncodingValidatesOnlyItsOwnETag() {
+		assertThat(CatalogResponses.checkNotModified(ETAG,
+				request("gzip", "\"abc-7-gzip\"", new MockHttpServletResponse()))).isTrue();
+		assertThat(CatalogResponses.checkNotModified(ETAG,
+				request(null, ETAG, new MockHttpServletResponse()))).isTrue();
+		assertThat(CatalogResponses.checkNotModified(ETAG,
+				request("gzip", ETAG, new MockHttpServletResponse()))).isFalse();
+		assertThat(CatalogResponses.checkNotModified(ETAG,
+				request(null, "\"abc-7-gzip\"", new MockHttpServletResponse()))).isFalse();
+	}
+
+	private static ServletWebRequest request(String acceptEncoding, String ifNoneMatch,
+			MockHttpServletResponse response) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+		if (acceptEncoding != null) {
+			request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return new ServletWebRequest(request, response);
+	}
+}
@@ -0,0 +1,208 @@
+package com.system.brands.Controller;
+
+import com.system.brands.Service.ImageCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImageControllerTests {
+
+	private static final String KEY = "products/a.png";
+	private static final String ETAG = "\"abc\"";
+	private static final long LAST_MODIFIED = 1_700_000_000_000L;
+	private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+	private final ImageCacheService imageCacheService = mock(ImageCacheService.class);
+	private final ImageController controller = new ImageController(imageCacheService);
+
+	@TempDir
+	Path directory;
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.write(directory.resolve("image"), CONTENT);
+		when(imageCacheService.get(KEY)).thenReturn(
+				new ImageCacheService.CachedImage(file, CONTENT.length, LAST_MODIFIED, "image/png", ETAG));
+	}
+
+	@Test
+	void sendsTheWholeImage() throws IOException {
+		MockHttpServletResponse response = get(request(KEY));
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).isEqualTo("image/png");
+		assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+		assertThat(response.getContentLengthLong()).isEqualTo(10);
+		assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void unknownImageIsNotFound() throws IOException {
+		assertThat(get(request("products/missing.png")).getStatus()).isEqualTo(404);
+	}
+
+	@Test
+	void matchingETagIsNotModified() throws IOException {
+		MockHttpServletRequest request = request(KEY);
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+		MockHttpServletResponse response = get(request);
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void sendsTheRequestedRange() throws IOException {
+		MockHttpServletResponse response = get(range("bytes=2-5"));
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+		assertThat(response.getContentLengthLong()).isEqualTo(4);
+		assertThat(response.getContentAsString()).isEqualTo("2345");
+	}
+
+	@Test
+	void sendsASuffixRange() throws IOException {
+		MockHttpServletResponse response = get(range("bytes=-3"));
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+		assertThat(response.getContentAsString()).isEqualTo("789");
+	}
+
+	@Test
+	void clipsARangePastTheEnd() throws IOException {
+		MockHttpServletResponse response = get(range("bytes=8-100"));
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 8-9/10");
+		assertThat(response.getContentAsString()).isEqualTo("89");
+	}
+
+	@Test
+	void rangeStartingPastTheEndIsNotSatisfiable() throws IOException {
+		MockHttpServletResponse response = get(range("bytes=10-"));
+
+		assertThat(response.getStatus()).isEqualTo(416);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void severalRangesGetTheWholeImage() throws IOException {
+		MockHttpServletResponse response = get(range("bytes=0-1,4-5"));
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+		assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void malformedRangeGetsTheWholeImage() throws IOException {
+		MockHttpServletResponse response = get(range("lines=1-2"));
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void ifRangeWithTheCurrentETagGetsTheRange() throws IOException {
+		MockHttpServletRequest request = range("bytes=2-5");
+		request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+		assertThat(get(request).getStatus()).isEqualTo(206);
+	}
+
+	@Test
+	void ifRangeWithAnotherETagGetsTheWholeImage() throws IOException {
+		MockHttpServletRequest request = range("bytes=2-5");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+		MockHttpServletResponse response = get(request);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void ifRangeWithTheLastModifiedDateGetsTheRange() throws IOException {
+		MockHttpServletRequest request = range("bytes=2-5");
+		request.addHeader(HttpHeaders.IF_RANGE, httpDate(LAST_MODIFIED));
+
+		assertThat(get(request).getStatus()).isEqualTo(206);
+	}
+
+	@Test
+	void ifRangeWithAnOlderDateGetsTheWholeImage() throws IOException {
+		MockHttpServletRequest request = range("bytes=2-5");
+		request.addHeader(HttpHeaders.IF_RANGE, httpDate(LAST_MODIFIED - 60_000));
+
+		assertThat(get(request).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void headSendsOnlyTheLength() throws IOException {
+		MockHttpServletRequest request = range("bytes=2-5");
+		request.setMethod("HEAD");
+
+		MockHttpServletResponse response = get(request);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getContentLengthLong()).isEqualTo(4);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void connectorWithSendfileIsHandedTheFile() throws IOException {
+		MockHttpServletRequest request = range("bytes=2-5");
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+		MockHttpServletResponse response = get(request);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+				.isEqualTo(file.toAbsolutePath().toString());
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(6L);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	private MockHttpServletResponse get(MockHttpServletRequest request) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.getImage(request, response);
+		return response;
+	}
+
+	private static MockHttpServletRequest range(String range) {
+		MockHttpServletRequest request = request(KEY);
+		request.addHeader(HttpHeaders.RANGE, range);
+		return request;
+	}
+
+	private static MockHttpServletRequest request(String key) {
+		return new MockHttpServletRequest("GET", ImageController.BASE_PATH + "/" + key);
+	}
+
+	private static String httpDate(long millis) {
+		return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+	}
+}
@@ -0,0 +1,53 @@
+package com.system.brands.Model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ImageVariantTests {
+
+	@Test
+	void variantKeyEndsInTheFormatItIsEncodedIn() {
+		assertThat(ImageVariant.THUMBNAIL.keyFor("products/abc.jpeg"))
+				.isEqualTo("variants/thumbnail/products/abc.jpeg.jpg");
+		assertThat(ImageVariant.MEDIUM.keyFor("brands/abc.bmp")).isEqualTo("variants/medium/brands/abc.bmp.jpg");
+		assertThat(ImageVariant.FULL.keyFor("products/abc.PNG")).isEqualTo("variants/full/products/abc.PNG.png");
+	}
+
+	@Test
+	void formatsThatCanCarryTransparencyStayPng() {
+		assertThat(ImageVariant.formatOf("products/a.png")).isEqualTo(ImageVariant.PNG);
+		assertThat(ImageVariant.formatOf("products/a.gif")).isEqualTo(ImageVariant.PNG);
+		assertThat(ImageVariant.formatOf("products/a.webp")).isEqualTo(ImageVariant.PNG);
+		assertThat(ImageVariant.formatOf("products/a.jpg")).isEqualTo(ImageVariant.JPEG);
+		assertThat(ImageVariant.formatOf("products/a")).isEqualTo(ImageVariant.JPEG);
+	}
+
+	@Test
+	void originalKeyIsRecoveredFromEveryVariantKey() {
+		for (String original : new String[] { "products/abc.png", "brands/abc.jpeg", "products/abc" }) {
+			for (String variantKey : ImageVariant.keysFor(original)) {
+				assertThat(ImageVariant.originalKeyOf(variantKey)).isEqualTo(original);
+				assertThat(ImageVariant.sourceKeyOf(variantKey)).isEqualTo(original);
+			}
+		}
+	}
+
+	@Test
+	void keysOutsideTheVariantFormatAreNoVariants() {
+		assertThat(ImageVariant.originalKeyOf("products/abc.png")).isNull();
+		assertThat(ImageVariant.sourceKeyOf("products/abc.png")).isEqualTo("products/abc.png");
+		// Keys from before variants were named after their format
+		assertThat(ImageVariant.originalKeyOf("variants/thumbnail/products/abc.png")).isNull();
+		assertThat(ImageVariant.originalKeyOf("variants/thumbnail")).isNull();
+	}
+
+	@Test
+	void urlsAreListedSmallestFirst() {
+		assertThat(ImageVariant.urlsFor("products/a.png", key -> "/" + key)).containsExactly(
+				entry("thumbnail", "/variants/thumbnail/products/a.png.png"),
+				entry("medium", "/variants/medium/products/a.png.png"),
+				entry("full", "/variants/full/products/a.png.png"));
+	}
+}
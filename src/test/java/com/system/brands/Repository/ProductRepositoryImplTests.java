@@ -0,0 +1,86 @@
+package com.system.brands.Repository;
+
+import com.system.brands.Model.Brand;
+import com.system.brands.Model.Product;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductRepositoryImplTests {
+
+	private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+	private final ProductRepositoryImpl repository = new ProductRepositoryImpl(jdbcTemplate);
+
+	@Test
+	void insertProductsTakesIdsFromTheBlockBelowEachSequenceValue() {
+		List<Product> products = products(3);
+		givenSequenceValues(50);
+
+		repository.insertProducts(products);
+
+		assertThat(products).extracting(Product::getId).containsExactly(1, 2, 3);
+		assertThat(requestedBlocks()).isEqualTo(1);
+	}
+
+	@Test
+	void insertProductsFillsAWholeBlockBeforeTheNext() {
+		int size = Product.ID_ALLOCATION_SIZE;
+		List<Product> products = products(size + 2);
+		givenSequenceValues(150, 250);
+
+		repository.insertProducts(products);
+
+		assertThat(products.get(0).getId()).isEqualTo(150 - size + 1);
+		assertThat(products.get(size - 1).getId()).isEqualTo(150);
+		assertThat(products.get(size).getId()).isEqualTo(250 - size + 1);
+		assertThat(products.get(size + 1).getId()).isEqualTo(250 - size + 2);
+		assertThat(products).extracting(Product::getId).doesNotHaveDuplicates();
+		assertThat(requestedBlocks()).isEqualTo(2);
+	}
+
+	@Test
+	void insertProductsOfExactlyOneBlockClaimsOneBlock() {
+		List<Product> products = products(Product.ID_ALLOCATION_SIZE);
+		givenSequenceValues(100);
+
+		repository.insertProducts(products);
+
+		assertThat(products.get(products.size() - 1).getId()).isEqualTo(100);
+		assertThat(requestedBlocks()).isEqualTo(1);
+	}
+
+	private void givenSequenceValues(Integer... upperBounds) {
+		when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Integer.class)))
+				.thenReturn(List.of(upperBounds));
+	}
+
+	private int requestedBlocks() {
+		ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+		verify(jdbcTemplate).queryForList(anyString(), params.capture(), eq(Integer.class));
+		return (Integer) ((MapSqlParameterSource) params.getValue()).getValue("blocks");
+	}
+
+	private static List<Product> products(int count) {
+		Brand brand = Brand.builder().id(1).build();
+		List<Product> products = new ArrayList<>();
+		IntStream.range(0, count).forEach(i -> products.add(Product.builder()
+				.brand(brand)
+				.name("Product " + i)
+				.build()));
+		return products;
+	}
+}
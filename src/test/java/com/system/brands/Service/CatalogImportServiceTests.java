@@ -0,0 +1,123 @@
+package com.system.brands.Service;
+
+import com.system.brands.Dto.ProductImportRowDto;
+import com.system.brands.Exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogImportServiceTests {
+
+	@Test
+	void parseCsvSplitsRecordsAndFields() throws IOException {
+		assertThat(parse("a,b,c\n1,2,3\n")).containsExactly(
+				List.of("a", "b", "c"),
+				List.of("1", "2", "3"));
+	}
+
+	@Test
+	void parseCsvKeepsLastRecordWithoutNewline() throws IOException {
+		assertThat(parse("a,b\n1,2")).containsExactly(List.of("a", "b"), List.of("1", "2"));
+	}
+
+	@Test
+	void parseCsvDropsCarriageReturns() throws IOException {
+		assertThat(parse("a,b\r\n1,2\r\n")).containsExactly(List.of("a", "b"), List.of("1", "2"));
+	}
+
+	@Test
+	void parseCsvKeepsEmptyFields() throws IOException {
+		assertThat(parse(",x,\n")).containsExactly(List.of("", "x", ""));
+	}
+
+	@Test
+	void parseCsvHandlesQuotedFields() throws IOException {
+		assertThat(parse("\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\"\n")).containsExactly(
+				List.of("a,b", "say \"hi\"", "two\nlines"));
+	}
+
+	@Test
+	void parseCsvHandlesQuoteAtEndOfInput() throws IOException {
+		assertThat(parse("x,\"y\"")).containsExactly(List.of("x", "y"));
+	}
+
+	@Test
+	void parseCsvOfEmptyInputHasNoRecords() throws IOException {
+		assertThat(parse("")).isEmpty();
+	}
+
+	@Test
+	void readCsvManifestMapsColumnsByHeaderInAnyOrder() throws IOException {
+		List<ProductImportRowDto> rows = read("\uFEFFImage,isNew,name,BRANDID,categoryId,packaging,isHidden\n"
+				+ "img/a.png,TRUE, Shoe ,3,,Box of 2,false\n"
+				+ "\n"
+				+ ",,Boot,4,7,,\n");
+
+		assertThat(rows).hasSize(2);
+		ProductImportRowDto first = rows.get(0);
+		assertThat(first.getImage()).isEqualTo("img/a.png");
+		assertThat(first.getIsNew()).isTrue();
+		assertThat(first.getName()).isEqualTo("Shoe");
+		assertThat(first.getBrandId()).isEqualTo(3);
+		assertThat(first.getCategoryId()).isNull();
+		assertThat(first.getPackaging()).isEqualTo("Box of 2");
+		assertThat(first.getIsHidden()).isFalse();
+
+		ProductImportRowDto second = rows.get(1);
+		assertThat(second.getImage()).isNull();
+		assertThat(second.getIsNew()).isNull();
+		assertThat(second.getName()).isEqualTo("Boot");
+		assertThat(second.getBrandId()).isEqualTo(4);
+		assertThat(second.getCategoryId()).isEqualTo(7);
+	}
+
+	@Test
+	void readCsvManifestToleratesShortRows() throws IOException {
+		List<ProductImportRowDto> rows = read("name,brandId,image\nShoe,1\n");
+
+		assertThat(rows).singleElement().satisfies(row -> {
+			assertThat(row.getName()).isEqualTo("Shoe");
+			assertThat(row.getImage()).isNull();
+		});
+	}
+
+	@Test
+	void readCsvManifestOfEmptyFileHasNoRows() throws IOException {
+		assertThat(read("")).isEmpty();
+	}
+
+	@Test
+	void readCsvManifestRequiresNameAndBrandColumns() {
+		assertThatThrownBy(() -> read("name,categoryId\nShoe,1\n"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessageContaining("name and brandId");
+	}
+
+	@Test
+	void readCsvManifestReportsLineOfInvalidNumber() {
+		assertThatThrownBy(() -> read("name,brandId\nShoe,1\nBoot,x\n"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("products.csv line 3: brandId must be a number");
+	}
+
+	@Test
+	void readCsvManifestRejectsInvalidBoolean() {
+		assertThatThrownBy(() -> read("name,brandId,isHidden\nShoe,1,yes\n"))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("products.csv line 2: isHidden must be true or false");
+	}
+
+	private static List<List<String>> parse(String csv) throws IOException {
+		return CatalogImportService.parseCsv(new BufferedReader(new StringReader(csv)));
+	}
+
+	private static List<ProductImportRowDto> read(String csv) throws IOException {
+		return CatalogImportService.readCsvManifest(new BufferedReader(new StringReader(csv)));
+	}
+}
@@ -0,0 +1,149 @@
+package com.system.brands.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageCacheServiceTests {
+
+	/** Two of these exceed the one megabyte limit used below. */
+	private static final int IMAGE_SIZE = 600 * 1024;
+
+	private final StorageService storageService = mock(StorageService.class);
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		when(storageService.openFile(anyString())).thenAnswer(invocation -> new ByteArrayInputStream(png()));
+	}
+
+	@Test
+	void downloadsOnceAndThenServesFromDisk() throws IOException {
+		ImageCacheService cache = cache(60_000);
+
+		ImageCacheService.CachedImage first = cache.get("products/a.png");
+		ImageCacheService.CachedImage second = cache.get("products/a.png");
+
+		assertThat(second.getFile()).isEqualTo(first.getFile());
+		assertThat(second.getSize()).isEqualTo(IMAGE_SIZE);
+		assertThat(second.getContentType()).isEqualTo("image/png");
+		assertThat(Files.readAllBytes(second.getFile())).isEqualTo(png());
+		verify(storageService, times(1)).openFile("products/a.png");
+	}
+
+	@Test
+	void keyOutsideTheServedFoldersIsNotServed() throws IOException {
+		ImageCacheService cache = cache(60_000);
+
+		assertThat(cache.get("staging/a.png")).isNull();
+		assertThat(cache.get("products/../staging/a.png")).isNull();
+		verify(storageService, never()).openFile(anyString());
+	}
+
+	@Test
+	void missingObjectIsNotCached() throws IOException {
+		when(storageService.openFile("products/gone.png")).thenThrow(new IOException("Not found"));
+		ImageCacheService cache = cache(60_000);
+
+		assertThat(cache.get("products/gone.png")).isNull();
+		assertThat(cachedFiles()).isEmpty();
+	}
+
+	@Test
+	void evictedFileStaysUntilTheRetireDelayHasPassed() throws IOException {
+		ImageCacheService cache = cache(60_000);
+		Path evicted = cache.get("products/a.png").getFile();
+
+		cache.get("products/b.png");
+		cache.deleteRetired();
+
+		// Still on disk for a response that was handed its path
+		assertThat(evicted).exists();
+		cache.get("products/a.png");
+		verify(storageService, times(2)).openFile("products/a.png");
+	}
+
+	@Test
+	void evictedFileIsDeletedAfterTheRetireDelay() throws IOException {
+		ImageCacheService cache = cache(0);
+		Path evicted = cache.get("products/a.png").getFile();
+		Path kept = cache.get("products/b.png").getFile();
+
+		cache.deleteRetired();
+
+		assertThat(evicted).doesNotExist();
+		assertThat(kept).exists();
+	}
+
+	@Test
+	void deletedObjectIsRetiredAndFetchedAgainOnTheNextRequest() throws IOException {
+		ImageCacheService cache = cache(0);
+		Path file = cache.get("products/a.png").getFile();
+
+		cache.evictAll(List.of("products/a.png"));
+		cache.deleteRetired();
+
+		assertThat(file).doesNotExist();
+		assertThat(cache.get("products/a.png").getFile()).isEqualTo(file);
+		verify(storageService, times(2)).openFile("products/a.png");
+	}
+
+	@Test
+	void fetchingARetiredImageAgainKeepsItsFile() throws IOException {
+		ImageCacheService cache = cache(0);
+		Path file = cache.get("products/a.png").getFile();
+		cache.evictAll(List.of("products/a.png"));
+
+		cache.get("products/a.png");
+		cache.deleteRetired();
+
+		assertThat(file).exists();
+	}
+
+	@Test
+	void restoresCachedFilesOnStartup() throws IOException {
+		cache(60_000).get("products/a.png");
+		Files.createFile(directory.resolve("unfinished.tmp"));
+
+		ImageCacheService restarted = cache(60_000);
+
+		assertThat(restarted.get("products/a.png").getContentType()).isEqualTo("image/png");
+		assertThat(cachedFiles()).hasSize(1);
+		verify(storageService, times(1)).openFile("products/a.png");
+	}
+
+	private ImageCacheService cache(long retireDelayMillis) throws IOException {
+		return new ImageCacheService(storageService, new SimpleMeterRegistry(), directory.toString(), 1,
+				retireDelayMillis);
+	}
+
+	private List<Path> cachedFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.toList();
+		}
+	}
+
+	private static byte[] png() {
+		byte[] content = new byte[IMAGE_SIZE];
+		System.arraycopy(new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' }, 0, content, 0, 8);
+		return content;
+	}
+}
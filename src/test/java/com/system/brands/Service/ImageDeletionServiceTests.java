@@ -0,0 +1,190 @@
+package com.system.brands.Service;
+
+import com.system.brands.Model.ImageVariant;
+import com.system.brands.Model.PendingImageDeletion;
+import com.system.brands.Repository.ImageReferenceRepository;
+import com.system.brands.Repository.PendingImageDeletionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageDeletionServiceTests {
+
+	private static final int BATCH_SIZE = 10;
+	private static final long LEASE_SECONDS = 300;
+	private static final long RETRY_DELAY_SECONDS = 30;
+
+	private final PendingImageDeletionRepository pendingImageDeletionRepository =
+			mock(PendingImageDeletionRepository.class);
+	private final ImageReferenceRepository imageReferenceRepository = mock(ImageReferenceRepository.class);
+	private final StorageService storageService = mock(StorageService.class);
+	private final ImageCacheService imageCacheService = mock(ImageCacheService.class);
+	private final ImageDeletionService imageDeletionService = new ImageDeletionService(
+			pendingImageDeletionRepository, imageReferenceRepository, storageService, imageCacheService,
+			new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(imageDeletionService, "batchSize", BATCH_SIZE);
+		ReflectionTestUtils.setField(imageDeletionService, "leaseSeconds", LEASE_SECONDS);
+		ReflectionTestUtils.setField(imageDeletionService, "retryDelaySeconds", RETRY_DELAY_SECONDS);
+		when(storageService.deleteFiles(anyCollection())).thenReturn(Map.of());
+	}
+
+	@Test
+	void enqueueingAnOriginalAlsoQueuesItsVariants() {
+		imageDeletionService.enqueueAll(List.of("products/a.jpg", "products/a.jpg", ""));
+
+		List<String> expected = new ArrayList<>(List.of("products/a.jpg"));
+		expected.addAll(ImageVariant.keysFor("products/a.jpg"));
+		assertThat(saved()).extracting(PendingImageDeletion::getS3Key).containsExactlyElementsOf(expected);
+		assertThat(saved()).allSatisfy(deletion -> assertThat(deletion.getAttempts()).isZero());
+	}
+
+	@Test
+	void delayedDeletionIsNotDueBeforeTheDelay() {
+		LocalDateTime before = LocalDateTime.now();
+		imageDeletionService.enqueueAll(List.of("products/a.jpg"), Duration.ofMinutes(10));
+
+		assertThat(saved()).isNotEmpty().allSatisfy(deletion ->
+				assertThat(deletion.getNextAttemptAt()).isAfterOrEqualTo(before.plusMinutes(10)));
+	}
+
+	@Test
+	void nothingDueTouchesNeitherLocksNorStorage() {
+		when(pendingImageDeletionRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of());
+
+		imageDeletionService.drain();
+
+		verify(pendingImageDeletionRepository, never()).postpone(anyList(), any());
+		verify(imageReferenceRepository, never()).lockKeys(anyCollection());
+		verify(storageService, never()).deleteFiles(anyCollection());
+	}
+
+	@Test
+	void claimedRowsAreLeasedAndDeletedUnderTheKeyLocks() {
+		PendingImageDeletion deletion = deletion(1L, "products/a.jpg", 0);
+		when(pendingImageDeletionRepository.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(List.of(deletion));
+		LocalDateTime before = LocalDateTime.now();
+
+		imageDeletionService.drain();
+
+		ArgumentCaptor<LocalDateTime> leasedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(pendingImageDeletionRepository).postpone(eq(List.of(1L)), leasedUntil.capture());
+		assertThat(leasedUntil.getValue()).isAfterOrEqualTo(before.plusSeconds(LEASE_SECONDS));
+
+		InOrder order = inOrder(imageReferenceRepository, storageService, imageCacheService,
+				pendingImageDeletionRepository);
+		order.verify(imageReferenceRepository).lockKeys(List.of("products/a.jpg"));
+		order.verify(imageReferenceRepository).findReferencedKeys(List.of("products/a.jpg"));
+		order.verify(storageService).deleteFiles(List.of("products/a.jpg"));
+		order.verify(imageCacheService).evictAll(List.of("products/a.jpg"));
+		order.verify(pendingImageDeletionRepository).deleteAllByIdInBatch(List.of(1L));
+	}
+
+	@Test
+	void objectReferencedAgainIsKeptWithItsVariants() {
+		String variant = ImageVariant.keysFor("products/a.jpg").get(0);
+		when(pendingImageDeletionRepository.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(List.of(
+				deletion(1L, "products/a.jpg", 0),
+				deletion(2L, variant, 0),
+				deletion(3L, "products/b.jpg", 0)));
+		when(imageReferenceRepository.findReferencedKeys(anyCollection())).thenReturn(List.of("products/a.jpg"));
+
+		imageDeletionService.drain();
+
+		verify(imageReferenceRepository).lockKeys(List.of("products/a.jpg", "products/b.jpg"));
+		verify(pendingImageDeletionRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+		verify(storageService).deleteFiles(List.of("products/b.jpg"));
+		verify(imageCacheService).evictAll(List.of("products/b.jpg"));
+		verify(pendingImageDeletionRepository).deleteAllByIdInBatch(List.of(3L));
+	}
+
+	@Test
+	void failedDeletionIsRetriedWithBackoff() {
+		when(pendingImageDeletionRepository.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(List.of(
+				deletion(1L, "products/a.jpg", 0),
+				deletion(2L, "products/b.jpg", 2)));
+		when(storageService.deleteFiles(anyCollection())).thenReturn(Map.of("products/b.jpg", "AccessDenied"));
+		LocalDateTime before = LocalDateTime.now();
+
+		imageDeletionService.drain();
+
+		verify(imageCacheService).evictAll(List.of("products/a.jpg"));
+		verify(pendingImageDeletionRepository).deleteAllByIdInBatch(List.of(1L));
+		ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(pendingImageDeletionRepository).recordFailure(eq(2L), retryAt.capture(), eq("AccessDenied"));
+		// Third attempt: the retry delay doubled twice
+		assertThat(retryAt.getValue()).isBetween(before.plusSeconds(4 * RETRY_DELAY_SECONDS),
+				LocalDateTime.now().plusSeconds(4 * RETRY_DELAY_SECONDS));
+	}
+
+	@Test
+	void backoffStopsGrowingAtAnHour() {
+		when(pendingImageDeletionRepository.findDueForUpdate(any(), eq(BATCH_SIZE)))
+				.thenReturn(List.of(deletion(1L, "products/a.jpg", 40)));
+		when(storageService.deleteFiles(anyCollection())).thenReturn(Map.of("products/a.jpg", "SlowDown"));
+		LocalDateTime before = LocalDateTime.now();
+
+		imageDeletionService.drain();
+
+		ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(pendingImageDeletionRepository).recordFailure(eq(1L), retryAt.capture(), eq("SlowDown"));
+		assertThat(retryAt.getValue()).isBetween(before.plusHours(1), LocalDateTime.now().plusHours(1));
+	}
+
+	@Test
+	void fullBatchIsFollowedByAnotherClaim() {
+		ReflectionTestUtils.setField(imageDeletionService, "batchSize", 1);
+		when(pendingImageDeletionRepository.findDueForUpdate(any(), eq(1))).thenReturn(
+				List.of(deletion(1L, "products/a.jpg", 0)),
+				List.of(deletion(2L, "products/b.jpg", 0)),
+				List.of());
+
+		imageDeletionService.drain();
+
+		verify(pendingImageDeletionRepository, times(3)).findDueForUpdate(any(), eq(1));
+		verify(storageService).deleteFiles(List.of("products/a.jpg"));
+		verify(storageService).deleteFiles(List.of("products/b.jpg"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<PendingImageDeletion> saved() {
+		ArgumentCaptor<List<PendingImageDeletion>> deletions = ArgumentCaptor.forClass(List.class);
+		verify(pendingImageDeletionRepository).saveAll(deletions.capture());
+		return deletions.getValue();
+	}
+
+	private static PendingImageDeletion deletion(Long id, String s3Key, int attempts) {
+		return PendingImageDeletion.builder()
+				.id(id)
+				.s3Key(s3Key)
+				.attempts(attempts)
+				.nextAttemptAt(LocalDateTime.now())
+				.createdAt(LocalDateTime.now())
+				.build();
+	}
+}
@@ -0,0 +1,51 @@
+package com.system.brands.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantServiceTests {
+
+	@Test
+	void resizeFitsTheLongestSideAndKeepsTheAspectRatio() {
+		BufferedImage resized = ImageVariantService.resize(image(4000, 1000, BufferedImage.TYPE_INT_RGB), 480, false);
+
+		assertThat(resized.getWidth()).isEqualTo(480);
+		assertThat(resized.getHeight()).isEqualTo(120);
+	}
+
+	@Test
+	void resizeNeverEnlarges() {
+		BufferedImage resized = ImageVariantService.resize(image(100, 50, BufferedImage.TYPE_INT_RGB), 480, false);
+
+		assertThat(resized.getWidth()).isEqualTo(100);
+		assertThat(resized.getHeight()).isEqualTo(50);
+	}
+
+	@Test
+	void resizeKeepsAtLeastOnePixelOnTheShortSide() {
+		BufferedImage resized = ImageVariantService.resize(image(3, 2000, BufferedImage.TYPE_INT_RGB), 160, false);
+
+		assertThat(resized.getWidth()).isEqualTo(1);
+		assertThat(resized.getHeight()).isEqualTo(160);
+	}
+
+	@Test
+	void resizeKeepsTransparencyOnlyWhenAsked() {
+		BufferedImage transparent = image(10, 10, BufferedImage.TYPE_INT_ARGB);
+
+		BufferedImage png = ImageVariantService.resize(transparent, 160, true);
+		BufferedImage jpeg = ImageVariantService.resize(transparent, 160, false);
+
+		assertThat(png.getColorModel().hasAlpha()).isTrue();
+		assertThat(png.getRGB(5, 5) >>> 24).isZero();
+		assertThat(jpeg.getColorModel().hasAlpha()).isFalse();
+		assertThat(jpeg.getRGB(5, 5)).isEqualTo(0xFFFFFFFF);
+	}
+
+	private static BufferedImage image(int width, int height, int type) {
+		return new BufferedImage(width, height, type);
+	}
+}
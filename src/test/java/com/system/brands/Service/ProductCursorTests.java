@@ -0,0 +1,61 @@
+package com.system.brands.Service;
+
+import com.system.brands.Exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCursorTests {
+
+	@Test
+	void roundTripsSortKeyAndId() {
+		String cursor = ProductService.encodeCursor(2048, 17);
+
+		assertThat(ProductService.decodeCursor(cursor)).containsExactly(2048, 17);
+	}
+
+	@Test
+	void roundTripsMissingSortKey() {
+		String cursor = ProductService.encodeCursor(null, 5);
+
+		assertThat(ProductService.decodeCursor(cursor)).containsExactly(null, 5);
+	}
+
+	@Test
+	void roundTripsNegativeAndExtremeSortKeys() {
+		assertThat(ProductService.decodeCursor(ProductService.encodeCursor(Integer.MIN_VALUE, 1)))
+				.containsExactly(Integer.MIN_VALUE, 1);
+		assertThat(ProductService.decodeCursor(ProductService.encodeCursor(Integer.MAX_VALUE, Integer.MAX_VALUE)))
+				.containsExactly(Integer.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	@Test
+	void encodesUrlSafeWithoutPadding() {
+		String cursor = ProductService.encodeCursor(-1, 1);
+
+		assertThat(cursor).doesNotContain("=", "+", "/");
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertInvalid("not base64!");
+		assertInvalid(encode("1024"));
+		assertInvalid(encode("1024:"));
+		assertInvalid(encode("abc:1"));
+		assertInvalid(encode("1024:1x"));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void assertInvalid(String cursor) {
+		assertThatThrownBy(() -> ProductService.decodeCursor(cursor))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("Invalid cursor");
+	}
+}
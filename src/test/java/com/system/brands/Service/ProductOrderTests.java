@@ -0,0 +1,94 @@
+package com.system.brands.Service;
+
+import com.system.brands.Model.ProductOrderScope;
+import com.system.brands.Repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.system.brands.Model.ProductOrderScope.ORDER_GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductOrderTests {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+
+	@Test
+	void orderBetweenTakesTheMiddle() {
+		assertThat(ProductService.orderBetween(1024, 2048)).isEqualTo(1536);
+		assertThat(ProductService.orderBetween(5, 7)).isEqualTo(6);
+		assertThat(ProductService.orderBetween(-3, 3)).isEqualTo(0);
+	}
+
+	@Test
+	void orderBetweenLeavesAGapAtTheEnds() {
+		assertThat(ProductService.orderBetween(null, 1024)).isEqualTo(1024 - ORDER_GAP);
+		assertThat(ProductService.orderBetween(1024, null)).isEqualTo(1024 + ORDER_GAP);
+		assertThat(ProductService.orderBetween(null, null)).isEqualTo(ORDER_GAP);
+	}
+
+	@Test
+	void orderBetweenNeedsARebalanceWithoutRoom() {
+		assertThat(ProductService.orderBetween(5, 6)).isNull();
+		assertThat(ProductService.orderBetween(5, 5)).isNull();
+		assertThat(ProductService.orderBetween(Integer.MAX_VALUE - 10, null)).isNull();
+		assertThat(ProductService.orderBetween(null, Integer.MIN_VALUE + 10)).isNull();
+	}
+
+	@Test
+	void orderBetweenStaysWithinIntRange() {
+		assertThat(ProductService.orderBetween(Integer.MIN_VALUE, Integer.MAX_VALUE)).isEqualTo(-1);
+		assertThat(ProductService.orderBetween(Integer.MAX_VALUE - 2, Integer.MAX_VALUE))
+				.isEqualTo(Integer.MAX_VALUE - 1);
+	}
+
+	@Test
+	void firstPositionHasOnlyAFollowingNeighbour() {
+		when(productRepository.findProductOrdersExcluding(ProductOrderScope.BRAND, 3, 9, 0, 1))
+				.thenReturn(List.of(1024));
+
+		assertThat(ProductService.findNeighbourOrders(productRepository, ProductOrderScope.BRAND, 3, 9, 1))
+				.containsExactly(null, 1024);
+	}
+
+	@Test
+	void firstPositionOfAnEmptyScopeHasNoNeighbours() {
+		when(productRepository.findProductOrdersExcluding(ProductOrderScope.ALL, null, 9, 0, 1))
+				.thenReturn(List.of());
+
+		assertThat(ProductService.findNeighbourOrders(productRepository, ProductOrderScope.ALL, null, 9, 1))
+				.containsExactly(null, null);
+	}
+
+	@Test
+	void laterPositionReadsTheTwoSurroundingKeys() {
+		when(productRepository.findProductOrdersExcluding(ProductOrderScope.CATEGORY, 4, 9, 1, 2))
+				.thenReturn(List.of(1024, 2048));
+
+		assertThat(ProductService.findNeighbourOrders(productRepository, ProductOrderScope.CATEGORY, 4, 9, 3))
+				.containsExactly(1024, 2048);
+		verify(productRepository).findProductOrdersExcluding(ProductOrderScope.CATEGORY, 4, 9, 1, 2);
+	}
+
+	@Test
+	void lastPositionHasOnlyAPrecedingNeighbour() {
+		when(productRepository.findProductOrdersExcluding(ProductOrderScope.ALL, null, 9, 3, 2))
+				.thenReturn(List.of(4096));
+
+		assertThat(ProductService.findNeighbourOrders(productRepository, ProductOrderScope.ALL, null, 9, 5))
+				.containsExactly(4096, null);
+	}
+
+	@Test
+	void neighbourWithoutASortKeyNeedsARebalance() {
+		when(productRepository.findProductOrdersExcluding(ProductOrderScope.ALL, null, 9, 0, 2))
+				.thenReturn(Arrays.asList(1024, null));
+
+		assertThat(ProductService.findNeighbourOrders(productRepository, ProductOrderScope.ALL, null, 9, 2))
+				.isNull();
+	}
+}
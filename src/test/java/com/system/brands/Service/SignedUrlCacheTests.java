@@ -0,0 +1,130 @@
+package com.system.brands.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignedUrlCacheTests {
+
+	private static final Duration LIFETIME = Duration.ofMinutes(60);
+
+	private final MutableClock clock = new MutableClock();
+	private final List<String> signed = new ArrayList<>();
+	private ExecutorService refresher;
+	private SignedUrlCache cache;
+
+	@BeforeEach
+	void setUp() {
+		refresher = Executors.newSingleThreadExecutor();
+		cache = new SignedUrlCache(key -> {
+			synchronized (signed) {
+				signed.add(key);
+				return key + "?v=" + signed.size();
+			}
+		}, LIFETIME, clock, refresher);
+	}
+
+	@AfterEach
+	void tearDown() {
+		cache.shutdown();
+	}
+
+	@Test
+	void signsOnceWithinTheFirstQuarter() {
+		assertThat(cache.get("a")).isEqualTo("a?v=1");
+		clock.advance(Duration.ofMinutes(14));
+
+		assertThat(cache.get("a")).isEqualTo("a?v=1");
+		assertThat(signed).containsExactly("a");
+	}
+
+	@Test
+	void refreshesInTheBackgroundAfterAQuarter() throws InterruptedException {
+		cache.get("a");
+		clock.advance(Duration.ofMinutes(15));
+
+		// The current URL is still handed out while the new one is signed
+		assertThat(cache.get("a")).isEqualTo("a?v=1");
+		awaitRefresher();
+
+		assertThat(signed).containsExactly("a", "a");
+		assertThat(cache.get("a")).isEqualTo("a?v=2");
+	}
+
+	@Test
+	void refreshesOnlyOncePerUrl() throws InterruptedException {
+		cache.get("a");
+		clock.advance(Duration.ofMinutes(20));
+
+		cache.get("a");
+		cache.get("a");
+		awaitRefresher();
+
+		assertThat(signed).containsExactly("a", "a");
+	}
+
+	@Test
+	void signsAgainOnDemandAfterHalfTheLifetime() {
+		cache.get("a");
+		clock.advance(Duration.ofMinutes(30));
+
+		assertThat(cache.get("a")).isEqualTo("a?v=2");
+		assertThat(signed).containsExactly("a", "a");
+	}
+
+	@Test
+	void evictExpiringDropsOnlyUrlsPastHalfTheirLifetime() {
+		cache.get("old");
+		clock.advance(Duration.ofMinutes(20));
+		cache.get("new");
+		clock.advance(Duration.ofMinutes(10));
+
+		cache.evictExpiring();
+
+		assertThat(cache.get("new")).isEqualTo("new?v=2");
+		assertThat(cache.get("old")).isEqualTo("old?v=3");
+		assertThat(signed).containsExactly("old", "new", "old");
+	}
+
+	private void awaitRefresher() throws InterruptedException {
+		refresher.shutdown();
+		assertThat(refresher.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
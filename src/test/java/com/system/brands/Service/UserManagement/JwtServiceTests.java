@@ -0,0 +1,92 @@
+package com.system.brands.Service.UserManagement;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTests {
+
+	private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+	@Test
+	void verifiesATokenOnceAndServesItFromTheCache() {
+		JwtService jwtService = new JwtService(SECRET, 60_000, 16);
+		String token = jwtService.generateToken(user("alice"));
+
+		assertThat(jwtService.verifyToken(token)).isEqualTo("alice");
+		assertThat(jwtService.verifyToken(token)).isEqualTo("alice");
+		assertThat(verifiedTokens(jwtService)).hasSize(1);
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedToken() {
+		JwtService jwtService = new JwtService(SECRET, 60_000, 2);
+		String alice = jwtService.generateToken(user("alice"));
+		String bob = jwtService.generateToken(user("bob"));
+		String carol = jwtService.generateToken(user("carol"));
+
+		jwtService.verifyToken(alice);
+		jwtService.verifyToken(bob);
+		jwtService.verifyToken(alice);
+		jwtService.verifyToken(carol);
+
+		assertThat(verifiedTokens(jwtService).values())
+				.extracting("username")
+				.containsExactly("alice", "carol");
+	}
+
+	@Test
+	void cachedTokenIsRejectedOnceItExpires() throws InterruptedException {
+		JwtService jwtService = new JwtService(SECRET, 1_000, 16);
+		String token = jwtService.generateToken(user("alice"));
+		assertThat(jwtService.verifyToken(token)).isEqualTo("alice");
+
+		// The expiry claim has second precision and is rounded down
+		Thread.sleep(1_100);
+
+		assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(ExpiredJwtException.class);
+		assertThat(verifiedTokens(jwtService)).isEmpty();
+	}
+
+	@Test
+	void tokenWithABadSignatureIsRejectedAndNotCached() {
+		JwtService jwtService = new JwtService(SECRET, 60_000, 16);
+		byte[] otherSecret = new byte[32];
+		Arrays.fill(otherSecret, (byte) 1);
+		JwtService otherKey = new JwtService(Base64.getEncoder().encodeToString(otherSecret), 60_000, 16);
+		String forged = otherKey.generateToken(user("alice"));
+
+		assertThatThrownBy(() -> jwtService.verifyToken(forged)).isInstanceOf(JwtException.class);
+		assertThat(verifiedTokens(jwtService)).isEmpty();
+	}
+
+	@Test
+	void emptyTokenIsRejected() {
+		JwtService jwtService = new JwtService(SECRET, 60_000, 16);
+
+		assertThatThrownBy(() -> jwtService.verifyToken("")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static User user(String username) {
+		return new User(username, "", List.of());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, ?> verifiedTokens(JwtService jwtService) {
+		Map<String, ?> verifiedTokens = (Map<String, ?>) ReflectionTestUtils.getField(jwtService, "verifiedTokens");
+		synchronized (verifiedTokens) {
+			return new LinkedHashMap<>(verifiedTokens);
+		}
+	}
+}